@@ -0,0 +1,749 @@
+package com.michaelstucki.triremeflashcards.build;
+
+import javafx.beans.DefaultProperty;
+import javafx.beans.NamedArg;
+
+import javax.lang.model.SourceVersion;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Build step: compiles the app's FXML files into plain Java view builders (run by Maven in generate-sources)
+ * Each FXML file becomes a method of the generated class FxmlViews that creates the controller, builds
+ * the scene graph with constructor and setter calls, assigns the controller's fx:id fields, wires its
+ * event handlers, and calls its initialize() method. Setter types, default properties, and
+ * {@code @NamedArg} constructors are looked up on the JavaFX classes here, at build time, so none of
+ * that reflection happens when the app starts.
+ * Files that use FXML features the compiler does not handle (scripts, includes, resource bundles,
+ * expressions, private controller members, ...) are left out; the app loads those with FXMLLoader.
+ * If an image factory (a static method taking a resource path) is given, images named by a location
+ * are got from it instead of decoded by each view, so views can share decoded images.
+ * <pre>
+ * java -cp &lt;JavaFX jars&gt; FxmlCompiler.java &lt;fxml dir&gt; &lt;java source dir&gt; &lt;output dir&gt; &lt;package&gt; [&lt;image factory&gt;]
+ * </pre>
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class FxmlCompiler {
+    private static final String CLASS_NAME = "FxmlViews";
+    private static final String FX_PREFIX = "fx:";
+
+    private FxmlCompiler() {}
+
+    /**
+     * main method
+     * @param args FXML directory, Java source directory, output source directory, generated class's package,
+     *             and optionally the image factory's qualified name, e.g. com.example.Images.get
+     * @throws Exception if the FXML directory cannot be read or the generated class cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4 && args.length != 5) {
+            System.err.println("usage: FxmlCompiler <fxml dir> <java source dir> <output dir> <package> [<image factory>]");
+            System.exit(2);
+        }
+        Path fxmlDirectory = Paths.get(args[0]);
+        Path sourceDirectory = Paths.get(args[1]);
+        Path outputDirectory = Paths.get(args[2]);
+        String packageName = args[3];
+        String imageFactory = args.length == 5 ? args[4] : null;
+        // Resource path prefix of the FXML files, e.g. /fxml/
+        String resourcePrefix = "/" + fxmlDirectory.getFileName() + "/";
+
+        List<Path> fxmlFiles;
+        try (Stream<Path> files = Files.list(fxmlDirectory)) {
+            fxmlFiles = files.filter(file -> file.toString().endsWith(".fxml")).sorted().toList();
+        }
+        Map<String, String> methods = new LinkedHashMap<>();
+        for (Path fxmlFile : fxmlFiles) {
+            String resourcePath = resourcePrefix + fxmlFile.getFileName();
+            String methodName = methodName(fxmlFile.getFileName().toString());
+            try {
+                methods.put(resourcePath, new ViewWriter(fxmlFile, resourcePath, methodName, sourceDirectory,
+                        packageName, imageFactory).write());
+            } catch (Unsupported e) {
+                System.out.println("FxmlCompiler: " + resourcePath + " left to FXMLLoader: " + e.getMessage());
+            }
+        }
+        String source = generatedClass(packageName, methods);
+        Path output = outputDirectory.resolve(packageName.replace('.', '/')).resolve(CLASS_NAME + ".java");
+        Files.createDirectories(output.getParent());
+        // Rewrite only on change, so an unchanged build does not recompile the views
+        if (!Files.exists(output) || !Files.readString(output, StandardCharsets.UTF_8).equals(source)) {
+            Files.writeString(output, source, StandardCharsets.UTF_8);
+        }
+        System.out.println("FxmlCompiler: compiled " + methods.size() + " of " + fxmlFiles.size() + " FXML files");
+    }
+
+    private static String generatedClass(String packageName, Map<String, String> methods) {
+        StringBuilder java = new StringBuilder();
+        java.append("package ").append(packageName).append(";\n\n");
+        java.append("/**\n")
+                .append(" * View builders generated from the app's FXML files by FxmlCompiler (do not edit)\n")
+                .append(" * build() returns null for a file that was not compiled; load that one with FXMLLoader.\n")
+                .append(" */\n");
+        java.append("public final class ").append(CLASS_NAME).append(" {\n");
+        java.append("    private ").append(CLASS_NAME).append("() {}\n\n");
+        java.append("    /**\n")
+                .append("     * A built view: its root node and its controller\n")
+                .append("     * @param root root node\n")
+                .append("     * @param controller controller instance (null if the file names none)\n")
+                .append("     */\n")
+                .append("    public record View(javafx.scene.Parent root, Object controller) {}\n\n");
+        java.append("    /**\n")
+                .append("     * Build a view\n")
+                .append("     * @param fxmlPath resource path of the FXML file, e.g. /fxml/home.fxml\n")
+                .append("     * @return the view, or null if the file was not compiled\n")
+                .append("     */\n")
+                .append("    public static View build(String fxmlPath) {\n")
+                .append("        return switch (fxmlPath) {\n");
+        for (String resourcePath : methods.keySet()) {
+            java.append("            case ").append(quote(resourcePath)).append(" -> ")
+                    .append(methodName(resourcePath.substring(resourcePath.lastIndexOf('/') + 1))).append("();\n");
+        }
+        java.append("            default -> null;\n")
+                .append("        };\n")
+                .append("    }\n\n");
+        java.append("    // URL of a resource named by an FXML location (@...) attribute\n")
+                .append("    private static String location(String path) {\n")
+                .append("        return java.util.Objects.requireNonNull(").append(CLASS_NAME)
+                .append(".class.getResource(path), path).toExternalForm();\n")
+                .append("    }\n");
+        for (String method : methods.values()) java.append('\n').append(method);
+        java.append("}\n");
+        return java.toString();
+    }
+
+    // home.fxml -> home, change_password.fxml -> changePassword
+    private static String methodName(String fileName) {
+        String base = fileName.substring(0, fileName.length() - ".fxml".length());
+        StringBuilder name = new StringBuilder();
+        boolean upper = false;
+        for (char c : base.toCharArray()) {
+            if (!Character.isLetterOrDigit(c)) {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) ? "view" + name : name.toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder java = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> java.append("\\\"");
+                case '\\' -> java.append("\\\\");
+                case '\n' -> java.append("\\n");
+                case '\r' -> java.append("\\r");
+                case '\t' -> java.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        java.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        java.append(c);
+                    }
+                }
+            }
+        }
+        return java.append('"').toString();
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    // An FXML construct the compiler does not handle (the file is left to FXMLLoader)
+    private static final class Unsupported extends Exception {
+        private Unsupported(String message) { super(message); }
+    }
+
+    // Writes the builder method for one FXML file
+    private static final class ViewWriter {
+        private final Path fxmlFile;
+        private final String resourcePath;
+        private final String methodName;
+        private final Path sourceDirectory;
+        private final String packageName;
+        private final String imageFactory;
+        private final List<String> imports = new ArrayList<>(List.of("java.lang.*"));
+        private final Set<String> names = new HashSet<>(Set.of("controller", "root"));
+        private final StringBuilder body = new StringBuilder();
+        private ControllerSource controller;
+
+        private ViewWriter(Path fxmlFile, String resourcePath, String methodName, Path sourceDirectory,
+                           String packageName, String imageFactory) {
+            this.fxmlFile = fxmlFile;
+            this.resourcePath = resourcePath;
+            this.methodName = methodName;
+            this.sourceDirectory = sourceDirectory;
+            this.packageName = packageName;
+            this.imageFactory = imageFactory;
+        }
+
+        private String write() throws Exception {
+            Tag rootElement = parse();
+            reserveIds(rootElement);
+
+            String controllerClass = rootElement.attribute(FX_PREFIX + "controller");
+            if (!controllerClass.isEmpty()) {
+                controller = new ControllerSource(controllerClass, sourceDirectory, packageName);
+                body.append("        ").append(controllerClass).append(" controller = new ")
+                        .append(controllerClass).append("();\n");
+            }
+            String root = object(rootElement);
+            if (!javafx.scene.Parent.class.isAssignableFrom(resolve(rootElement.name))) {
+                throw new Unsupported("root element is not a Parent");
+            }
+            if (controller != null && controller.hasInitialize()) body.append("        controller.initialize();\n");
+            body.append("        return new View(").append(root).append(", ")
+                    .append(controller == null ? "null" : "controller").append(");\n");
+
+            return "    // " + resourcePath + "\n" +
+                    "    @SuppressWarnings({\"rawtypes\", \"unchecked\"})\n" +
+                    "    private static View " + methodName + "() {\n" + body + "    }\n";
+        }
+
+        // Read the FXML file into a tree of tags (StAX keeps attributes in document order, which FXMLLoader
+        // applies them in); import processing instructions are collected on the way
+        private Tag parse() throws IOException, XMLStreamException, Unsupported {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            Deque<Tag> open = new ArrayDeque<>();
+            Tag root = null;
+            try (InputStream input = Files.newInputStream(fxmlFile)) {
+                XMLStreamReader reader = factory.createXMLStreamReader(input);
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                            if (!reader.getPITarget().equals("import")) {
+                                throw new Unsupported("<?" + reader.getPITarget() + "?> is not supported");
+                            }
+                            imports.add(reader.getPIData().trim());
+                        }
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            Tag tag = new Tag(reader.getLocalName());
+                            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                                String prefix = reader.getAttributePrefix(i);
+                                String name = reader.getAttributeLocalName(i);
+                                tag.attributes.put(prefix == null || prefix.isEmpty() ? name : prefix + ":" + name,
+                                        reader.getAttributeValue(i));
+                            }
+                            if (open.isEmpty()) {
+                                root = tag;
+                            } else {
+                                open.peek().children.add(tag);
+                            }
+                            open.push(tag);
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> open.pop();
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                            if (!open.isEmpty() && !reader.isWhiteSpace() && !reader.getText().isBlank()) {
+                                open.peek().hasText = true;
+                            }
+                        }
+                        default -> { }
+                    }
+                }
+                reader.close();
+            }
+            if (root == null) throw new Unsupported("no root element");
+            return root;
+        }
+
+        // fx:id names become local variable names; keep generated names clear of them
+        private void reserveIds(Tag element) throws Unsupported {
+            String id = element.attribute(FX_PREFIX + "id");
+            if (!id.isEmpty()) {
+                if (!SourceVersion.isIdentifier(id) || SourceVersion.isKeyword(id)) {
+                    throw new Unsupported("fx:id " + id + " is not a Java identifier");
+                }
+                if (!names.add(id)) throw new Unsupported("fx:id " + id + " is used twice");
+            }
+            for (Tag child : element.children) reserveIds(child);
+        }
+
+        // Emit the statements that create an object element; returns its variable name
+        private String object(Tag element) throws Exception {
+            String tag = element.name;
+            if (tag.startsWith(FX_PREFIX)) throw new Unsupported("<" + tag + "> is not supported");
+            Class<?> type = resolve(tag);
+            if (element.hasText) throw new Unsupported("text content in <" + tag + "> is not supported");
+            String id = element.attribute(FX_PREFIX + "id");
+            String variable = id.isEmpty() ? newName(type) : id;
+
+            // Attributes in document order: properties first, then (after the children) handlers and static properties
+            List<Map.Entry<String, String>> properties = new ArrayList<>();
+            List<Map.Entry<String, String>> handlers = new ArrayList<>();
+            List<Map.Entry<String, String>> staticProperties = new ArrayList<>();
+            for (Map.Entry<String, String> attribute : element.attributes.entrySet()) {
+                String name = attribute.getKey();
+                if (name.startsWith("xmlns") || name.equals(FX_PREFIX + "id") || name.equals(FX_PREFIX + "controller")) {
+                    continue;
+                }
+                if (name.startsWith(FX_PREFIX)) throw new Unsupported(name + " is not supported");
+                if (name.contains(".")) {
+                    staticProperties.add(attribute);
+                } else if (name.startsWith("on") && attribute.getValue().startsWith("#")) {
+                    handlers.add(attribute);
+                } else {
+                    properties.add(attribute);
+                }
+            }
+
+            if (!hasNoArgConstructor(type)) {
+                namedArgObject(element, type, variable, properties);
+                if (!handlers.isEmpty() || !staticProperties.isEmpty()) {
+                    throw new Unsupported("<" + tag + "> has no default constructor");
+                }
+                return variable;
+            }
+            String typeName = type.getCanonicalName();
+            body.append("        ").append(typeName).append(' ').append(variable).append(" = new ")
+                    .append(typeName).append("();\n");
+            if (!id.isEmpty() && controller != null && controller.hasField(id)) {
+                body.append("        controller.").append(id).append(" = ").append(variable).append(";\n");
+            }
+            // Like FXMLLoader, an fx:id also becomes the node's id (for CSS #id selectors) unless one is given
+            if (!id.isEmpty() && !element.attributes.containsKey("id") && setter(type, "id") != null) {
+                body.append("        ").append(variable).append(".setId(").append(quote(id)).append(");\n");
+            }
+            for (Map.Entry<String, String> attribute : properties) {
+                property(variable, type, attribute.getKey(), attribute.getValue());
+            }
+            for (Tag child : element.children) {
+                String childTag = child.name;
+                if (Character.isLowerCase(childTag.charAt(0)) && !childTag.contains(".")) {
+                    propertyElement(variable, type, child);
+                } else if (childTag.contains(".") && Character.isUpperCase(childTag.charAt(0)) &&
+                        Character.isLowerCase(childTag.charAt(childTag.lastIndexOf('.') + 1))) {
+                    throw new Unsupported("static property element <" + childTag + "> is not supported");
+                } else {
+                    String defaultProperty = defaultProperty(type);
+                    if (defaultProperty == null) throw new Unsupported("<" + tag + "> has no default property");
+                    addToProperty(variable, type, defaultProperty, List.of(object(child)));
+                }
+            }
+            for (Map.Entry<String, String> attribute : handlers) {
+                handler(variable, type, attribute.getKey(), attribute.getValue());
+            }
+            for (Map.Entry<String, String> attribute : staticProperties) {
+                staticProperty(variable, attribute.getKey(), attribute.getValue());
+            }
+            return variable;
+        }
+
+        // Create an object that has no default constructor through its @NamedArg constructor
+        private void namedArgObject(Tag element, Class<?> type, String variable,
+                                    List<Map.Entry<String, String>> properties) throws Unsupported {
+            if (!element.children.isEmpty()) {
+                throw new Unsupported("<" + element.name + "> with child elements has no default constructor");
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (Map.Entry<String, String> attribute : properties) values.put(attribute.getKey(), attribute.getValue());
+            String typeName = type.getCanonicalName();
+            // An image named only by a location comes from the image factory, when there is one
+            if (imageFactory != null && typeName.equals("javafx.scene.image.Image") && values.size() == 1
+                    && values.getOrDefault("url", "").startsWith("@")) {
+                body.append("        ").append(typeName).append(' ').append(variable).append(" = ")
+                        .append(imageFactory).append('(').append(quote(location(values.get("url").substring(1))))
+                        .append(");\n");
+                inject(element, variable);
+                return;
+            }
+            Constructor<?> chosen = null;
+            for (Constructor<?> constructor : type.getConstructors()) {
+                List<String> names = namedArgs(constructor);
+                if (names == null || !names.containsAll(values.keySet())) continue;
+                if (chosen == null || constructor.getParameterCount() < chosen.getParameterCount()) chosen = constructor;
+            }
+            if (chosen == null) throw new Unsupported("no @NamedArg constructor of " + type.getName() + " takes " +
+                    values.keySet());
+            List<String> arguments = new ArrayList<>();
+            Annotation[][] annotations = chosen.getParameterAnnotations();
+            Class<?>[] parameterTypes = chosen.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                NamedArg namedArg = namedArg(annotations[i]);
+                String value = values.containsKey(namedArg.value()) ? values.get(namedArg.value()) : namedArg.defaultValue();
+                arguments.add(value.isEmpty() && !values.containsKey(namedArg.value())
+                        ? defaultValue(parameterTypes[i]) : literal(parameterTypes[i], null, value));
+            }
+            body.append("        ").append(typeName).append(' ').append(variable).append(" = new ")
+                    .append(typeName).append('(').append(String.join(", ", arguments)).append(");\n");
+            inject(element, variable);
+        }
+
+        // Assign an object with an fx:id to the controller's field of that name
+        private void inject(Tag element, String variable) throws Unsupported {
+            String id = element.attribute(FX_PREFIX + "id");
+            if (!id.isEmpty() && controller != null && controller.hasField(id)) {
+                body.append("        controller.").append(id).append(" = ").append(variable).append(";\n");
+            }
+        }
+
+        // Set an instance property from an attribute
+        private void property(String variable, Class<?> type, String name, String value) throws Unsupported {
+            Method setter = setter(type, name);
+            if (setter != null) {
+                body.append("        ").append(variable).append('.').append(setter.getName()).append('(')
+                        .append(literal(setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0], value))
+                        .append(");\n");
+                return;
+            }
+            Method getter = getter(type, name);
+            if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+                // Read-only list property: a comma-separated list of elements
+                Class<?> elementType = listElementType(getter);
+                for (String part : value.split(",")) {
+                    body.append("        ").append(variable).append('.').append(getter.getName()).append("().add(")
+                            .append(literal(elementType, null, part.trim())).append(");\n");
+                }
+                return;
+            }
+            throw new Unsupported(type.getSimpleName() + " has no property " + name);
+        }
+
+        // A property element: <padding><Insets .../></padding>, <items>...</items>, ...
+        private void propertyElement(String variable, Class<?> type, Tag element) throws Exception {
+            if (!element.attributes.isEmpty() || element.hasText) {
+                throw new Unsupported("property element <" + element.name + "> with attributes or text");
+            }
+            List<String> values = new ArrayList<>();
+            for (Tag child : element.children) values.add(object(child));
+            addToProperty(variable, type, element.name, values);
+        }
+
+        // Set a property to an object, or add objects to a list property
+        private void addToProperty(String variable, Class<?> type, String name, List<String> values)
+                throws Unsupported {
+            Method getter = getter(type, name);
+            if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+                for (String value : values) {
+                    body.append("        ").append(variable).append('.').append(getter.getName()).append("().add(")
+                            .append(value).append(");\n");
+                }
+                return;
+            }
+            Method setter = setter(type, name);
+            if (setter == null || values.size() != 1) {
+                throw new Unsupported(type.getSimpleName() + "." + name + " cannot take " + values.size() + " values");
+            }
+            body.append("        ").append(variable).append('.').append(setter.getName()).append('(')
+                    .append(values.get(0)).append(");\n");
+        }
+
+        // onAction="#method": call the controller method (with the event if it takes one)
+        private void handler(String variable, Class<?> type, String name, String value) throws Unsupported {
+            Method setter = setter(type, name);
+            if (setter == null || !javafx.event.EventHandler.class.equals(setter.getParameterTypes()[0])) {
+                throw new Unsupported(type.getSimpleName() + " has no event handler property " + name);
+            }
+            if (controller == null) throw new Unsupported(name + " needs a controller");
+            String method = value.substring(1);
+            boolean takesEvent = controller.handlerTakesEvent(method);
+            String lambda = takesEvent ? "controller::" + method : "event -> controller." + method + "()";
+            body.append("        ").append(variable).append('.').append(setter.getName()).append('(')
+                    .append(lambda).append(");\n");
+        }
+
+        // StackPane.alignment="CENTER_RIGHT": call the static setter with the node
+        private void staticProperty(String variable, String name, String value) throws Unsupported {
+            int dot = name.lastIndexOf('.');
+            Class<?> owner = resolve(name.substring(0, dot));
+            String setterName = "set" + capitalize(name.substring(dot + 1));
+            for (Method method : owner.getMethods()) {
+                if (method.getName().equals(setterName) && Modifier.isStatic(method.getModifiers()) &&
+                        method.getParameterCount() == 2) {
+                    body.append("        ").append(owner.getCanonicalName()).append('.').append(setterName)
+                            .append('(').append(variable).append(", ")
+                            .append(literal(method.getParameterTypes()[1], null, value)).append(");\n");
+                    return;
+                }
+            }
+            throw new Unsupported("no static property " + name);
+        }
+
+        // Java expression for an attribute value converted to a type (as FXMLLoader would coerce it)
+        private String literal(Class<?> type, Type genericType, String value) throws Unsupported {
+            if (value.startsWith("$") || value.startsWith("%")) {
+                throw new Unsupported("expressions and resource keys (" + value + ") are not supported");
+            }
+            if (value.startsWith("\\")) {
+                value = value.substring(1);
+            } else if (value.startsWith("@")) {
+                if (!type.isAssignableFrom(String.class)) throw new Unsupported("location " + value + " for " + type);
+                return "location(" + quote(location(value.substring(1))) + ")";
+            }
+            try {
+                if (type == String.class || type == Object.class) return quote(value);
+                if (type == double.class || type == Double.class) return Double.toString(Double.parseDouble(value.trim()));
+                if (type == float.class || type == Float.class) return Float.parseFloat(value.trim()) + "f";
+                if (type == int.class || type == Integer.class) return Integer.toString(Integer.parseInt(value.trim()));
+                if (type == long.class || type == Long.class) return Long.parseLong(value.trim()) + "L";
+                if (type == boolean.class || type == Boolean.class) return Boolean.toString(Boolean.parseBoolean(value.trim()));
+            } catch (NumberFormatException e) {
+                throw new Unsupported("\"" + value + "\" is not a " + type.getSimpleName());
+            }
+            if (type.isEnum()) return type.getCanonicalName() + "." + enumConstant(type, value.trim());
+            if (type == javafx.scene.paint.Paint.class || type == javafx.scene.paint.Color.class) {
+                return "javafx.scene.paint.Color.web(" + quote(value.trim()) + ")";
+            }
+            if (type.isArray()) {
+                List<String> elements = new ArrayList<>();
+                for (String part : value.split(",")) elements.add(literal(type.getComponentType(), null, part.trim()));
+                return "new " + type.getComponentType().getCanonicalName() + "[] {" + String.join(", ", elements) + "}";
+            }
+            throw new Unsupported("cannot convert \"" + value + "\" to " + (genericType == null ? type : genericType));
+        }
+
+        // Resolve a location relative to the FXML file's resource directory
+        private String location(String relative) {
+            String base = resourcePath.substring(0, resourcePath.lastIndexOf('/') + 1);
+            return Paths.get(relative.startsWith("/") ? relative : base + relative).normalize().toString()
+                    .replace('\\', '/');
+        }
+
+        // FXMLLoader accepts enum constants in any case, and camelCase for UPPER_UNDERSCORE
+        private static String enumConstant(Class<?> type, String value) throws Unsupported {
+            String upper = value.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+            for (Field field : type.getFields()) {
+                if (field.isEnumConstant() && (field.getName().equals(value) || field.getName().equals(upper))) {
+                    return field.getName();
+                }
+            }
+            throw new Unsupported(value + " is not a " + type.getSimpleName());
+        }
+
+        private static String defaultValue(Class<?> type) {
+            if (type == boolean.class) return "false";
+            if (type == double.class) return "0.0";
+            if (type == float.class) return "0.0f";
+            if (type == long.class) return "0L";
+            if (type.isPrimitive()) return "0";
+            return "null";
+        }
+
+        private Class<?> resolve(String name) throws Unsupported {
+            ClassLoader loader = FxmlCompiler.class.getClassLoader();
+            List<String> candidates = new ArrayList<>();
+            for (String imported : imports) {
+                if (imported.endsWith(".*")) {
+                    candidates.add(imported.substring(0, imported.length() - 1) + name);
+                } else if (imported.endsWith("." + name) || imported.endsWith("." + name.substring(0, name.indexOf('.') < 0
+                        ? name.length() : name.indexOf('.')))) {
+                    // Imported class (or a nested class of one)
+                    candidates.add(imported.substring(0, imported.lastIndexOf('.') + 1) + name);
+                }
+            }
+            candidates.add(name);
+            for (String candidate : candidates) {
+                // Nested classes: Outer.Inner -> Outer$Inner
+                String binary = candidate;
+                while (true) {
+                    try {
+                        return Class.forName(binary, false, loader);
+                    } catch (ClassNotFoundException e) {
+                        int dot = binary.lastIndexOf('.');
+                        if (dot < 0 || !Character.isUpperCase(binary.charAt(binary.lastIndexOf('.', dot - 1) + 1))) break;
+                        binary = binary.substring(0, dot) + "$" + binary.substring(dot + 1);
+                    }
+                }
+            }
+            throw new Unsupported("cannot resolve class " + name);
+        }
+
+        private String newName(Class<?> type) {
+            String base = Character.toLowerCase(type.getSimpleName().charAt(0)) + type.getSimpleName().substring(1);
+            for (int i = 1; ; i++) {
+                if (names.add(base + i)) return base + i;
+            }
+        }
+
+        private static boolean hasNoArgConstructor(Class<?> type) {
+            for (Constructor<?> constructor : type.getConstructors()) {
+                if (constructor.getParameterCount() == 0) return true;
+            }
+            return false;
+        }
+
+        private static List<String> namedArgs(Constructor<?> constructor) {
+            List<String> names = new ArrayList<>();
+            for (Annotation[] annotations : constructor.getParameterAnnotations()) {
+                NamedArg namedArg = namedArg(annotations);
+                if (namedArg == null) return null;
+                names.add(namedArg.value());
+            }
+            return names;
+        }
+
+        private static NamedArg namedArg(Annotation[] annotations) {
+            for (Annotation annotation : annotations) {
+                if (annotation instanceof NamedArg namedArg) return namedArg;
+            }
+            return null;
+        }
+
+        private static String defaultProperty(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                DefaultProperty defaultProperty = c.getAnnotation(DefaultProperty.class);
+                if (defaultProperty != null) return defaultProperty.value();
+            }
+            return null;
+        }
+
+        private static Method setter(Class<?> type, String name) {
+            String setterName = "set" + capitalize(name);
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(setterName) && method.getParameterCount() == 1 &&
+                        !Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        private static Method getter(Class<?> type, String name) {
+            for (String prefix : new String[] {"get", "is"}) {
+                try {
+                    Method method = type.getMethod(prefix + capitalize(name));
+                    if (!Modifier.isStatic(method.getModifiers())) return method;
+                } catch (NoSuchMethodException e) {
+                    // try the next prefix
+                }
+            }
+            return null;
+        }
+
+        private static Class<?> listElementType(Method getter) {
+            if (getter.getGenericReturnType() instanceof ParameterizedType list &&
+                    list.getActualTypeArguments()[0] instanceof Class<?> element) {
+                return element;
+            }
+            return Object.class;
+        }
+
+    }
+
+    // An FXML element: its name, attributes (in document order), child elements, and whether it has text
+    private static final class Tag {
+        private final String name;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private final List<Tag> children = new ArrayList<>();
+        private boolean hasText;
+
+        private Tag(String name) { this.name = name; }
+
+        private String attribute(String attributeName) { return attributes.getOrDefault(attributeName, ""); }
+    }
+
+    // The members of a controller class that the builders use, read from its source file
+    private static final class ControllerSource {
+        private static final Pattern FIELD = Pattern.compile(
+                "((?:\\b(?:private|protected|public|static|final|transient|volatile)\\s+)*)" +
+                        "[\\w.]+(?:<[^;=(){}]*>)?(?:\\[])?\\s+(\\w+)\\s*(?:=[^;]*)?;");
+        private static final Pattern METHOD = Pattern.compile(
+                "((?:\\b(?:private|protected|public|static|final|synchronized)\\s+)*)void\\s+(\\w+)\\s*\\(([^)]*)\\)");
+        // Field name -> modifiers, and method name -> parameter list
+        private final Map<String, String> fields = new LinkedHashMap<>();
+        private final Map<String, String> methods = new LinkedHashMap<>();
+        private final Map<String, String> methodModifiers = new LinkedHashMap<>();
+        private final String className;
+
+        private ControllerSource(String className, Path sourceDirectory, String packageName)
+                throws IOException, Unsupported {
+            this.className = className;
+            if (!className.substring(0, Math.max(className.lastIndexOf('.'), 0)).equals(packageName)) {
+                throw new Unsupported("controller " + className + " is not in package " + packageName);
+            }
+            Path source = sourceDirectory.resolve(className.replace('.', '/') + ".java");
+            if (!Files.exists(source)) throw new Unsupported("no source file for controller " + className);
+            String members = classBody(Files.readString(source, StandardCharsets.UTF_8));
+            Matcher field = FIELD.matcher(members);
+            while (field.find()) fields.putIfAbsent(field.group(2), field.group(1));
+            Matcher method = METHOD.matcher(members);
+            while (method.find()) {
+                methods.putIfAbsent(method.group(2), method.group(3).trim());
+                methodModifiers.putIfAbsent(method.group(2), method.group(1));
+            }
+        }
+
+        // Whether the controller has a field for an fx:id (it must be accessible from the generated class)
+        private boolean hasField(String name) throws Unsupported {
+            String modifiers = fields.get(name);
+            if (modifiers == null) return false;
+            if (modifiers.contains("private") || modifiers.contains("static") || modifiers.contains("final")) {
+                throw new Unsupported(className + "." + name + " must be a package-private instance field");
+            }
+            return true;
+        }
+
+        // Whether an event handler method takes the event (as FXMLLoader allows either)
+        private boolean handlerTakesEvent(String name) throws Unsupported {
+            String parameters = methods.get(name);
+            if (parameters == null) throw new Unsupported("no handler method " + className + "." + name);
+            if (methodModifiers.get(name).contains("private")) {
+                throw new Unsupported(className + "." + name + " is private");
+            }
+            return !parameters.isEmpty();
+        }
+
+        private boolean hasInitialize() throws Unsupported {
+            if (!"".equals(methods.get("initialize"))) return false;
+            if (methodModifiers.get("initialize").contains("private")) {
+                throw new Unsupported(className + ".initialize() is private");
+            }
+            return true;
+        }
+
+        // The class's own member declarations: comments and literals removed, nested bodies dropped
+        private static String classBody(String source) {
+            String code = source.replaceAll("(?s)/\\*.*?\\*/", " ")
+                    .replaceAll("//[^\\n]*", " ")
+                    .replaceAll("\"(?:\\\\.|[^\"\\\\])*\"", "\"\"")
+                    .replaceAll("'(?:\\\\.|[^'\\\\])'", "' '");
+            StringBuilder members = new StringBuilder();
+            int depth = 0;
+            for (char c : code.toCharArray()) {
+                if (c == '{') {
+                    depth++;
+                    if (depth == 2) members.append(';');
+                } else if (c == '}') {
+                    depth--;
+                } else if (depth == 1) {
+                    members.append(c);
+                }
+            }
+            return members.toString();
+        }
+    }
+}
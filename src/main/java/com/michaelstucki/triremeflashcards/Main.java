@@ -1,11 +1,15 @@
 package com.michaelstucki.triremeflashcards;
 
 import com.michaelstucki.triremeflashcards.constants.Constants;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
+import com.michaelstucki.triremeflashcards.util.Images;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
+import com.michaelstucki.triremeflashcards.util.StartupPipeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main class
@@ -15,21 +19,43 @@ import java.io.IOException;
  */
 public class Main extends Application {
     @Override
-    public void start(Stage stage) throws IOException {
+    public void start(Stage stage) {
+        // Startup runs as a small graph of tasks: fonts, images, and the database load in parallel with
+        // building the first UI, and the JavaFX thread waits only for what the first frame needs (fonts)
+        StartupPipeline startup = new StartupPipeline();
+
         // Enable use of fonts
-        for (String font : Constants.fonts) Font.loadFont(getClass().getResourceAsStream("/fonts/" + font), 10);
+        CompletableFuture<Void> fonts = startup.task("fonts", () -> {
+            for (String font : Constants.fonts) Font.loadFont(getClass().getResourceAsStream("/fonts/" + font), 10);
+        });
+        // Decode images (building a UI that shows one still being decoded waits for that decode)
+        CompletableFuture<Void> images = startup.task("images", () -> {
+            for (String image : Constants.images) Images.get("/images/" + image);
+        });
+        // Open the database (copying it out of the JAR on first run), migrate it, and prepare the first queries
+        CompletableFuture<Void> database = startup.track("database", AsyncDao.getAsyncDao().warmUp());
 
         // Get reference to SceneManager singleton to manager changing scenes
         SceneManager screenManager = SceneManager.getScreenManager();
         screenManager.setStage(stage);
 
-        // Create and cache UI scenes and FXMLLoaders
-        for (String fxml: Constants.fxmls) screenManager.showView("/fxml/" + fxml + ".fxml");
-        screenManager.showView("/fxml/home.fxml");
+        // Create and present only the first UI; the others are loaded in the background once the window is up
+        startup.phase("first view", () -> screenManager.showView("/fxml/" + Constants.fxmls[0] + ".fxml"));
 
         // Make app fixed in size
         stage.setResizable(false);
-        stage.show();
+        // CSS resolves the fonts when the window is first laid out
+        startup.await("fonts", fonts);
+        startup.phase("show", stage::show);
+        startup.milestone("window shown");
+        startup.shutdown();
+
+        // Prewarm the other UIs once the startup tasks are done, so they do not compete with them
+        CompletableFuture.allOf(images, database).whenCompleteAsync((ignored, failure) -> {
+            for (int i = 1; i < Constants.fxmls.length; i++) {
+                screenManager.prewarm("/fxml/" + Constants.fxmls[i] + ".fxml");
+            }
+        }, Platform::runLater);
 
         // Create on-exit handler
         stage.setOnCloseRequest(event -> {
@@ -13,10 +13,20 @@ public final class Constants {
     public static final double width = height * ASPECT_RATIO;
     public static final String[] fonts = {"HerculanumLTProRoman.TTF", "EBGaramond-Regular.ttf",
             "EBGaramond-Italic.ttf", "EBGaramond-Bold.ttf"};
-    public static final String[] fxmls = {"delete_account", "welcome", "drills", "cards", "decks", "change_password",
-            "forgot_password", "create_account", "home"};
+    // Images decoded at startup (the logo and eye icons first, since the home UI shows them)
+    public static final String[] images = {"trireme.png", "eye_closed.jpg", "eye_open.jpg",
+            "icons8-exclamation-mark-64.png"};
+    // UIs in likely order of navigation: the first is shown at startup, the rest are prewarmed in this order
+    public static final String[] fxmls = {"home", "welcome", "decks", "cards", "drills", "create_account",
+            "forgot_password", "change_password", "delete_account"};
     public static final String cardToken = "::";
-    public static final String databasePathExternal = "/Users/userName/.flashcards.db";
+    // Print timing and housekeeping diagnostics (run with -Dtrireme.verbose=true)
+    public static final boolean verbose = Boolean.getBoolean("trireme.verbose");
+    // Decks with at least this many cards are loaded into columnar storage (see Deck.columnar)
+    public static final int columnarDeckCards = 50_000;
+    public static final String dataDirectoryName = "trireme-flashcards";
+    public static final String databaseFileName = "flashcards.db";
+    public static final String databaseFileLegacy = ".flashcards.db";
     public static final String databasePathInternal = "src/main/resources/database/flashcards.db";
     public static final String databasePathJAR = "/database/flashcards.db";
     public static final String usersTable = "users";
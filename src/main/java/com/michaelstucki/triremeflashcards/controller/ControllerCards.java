@@ -1,15 +1,18 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.dto.Card;
 import com.michaelstucki.triremeflashcards.dto.Deck;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
+import javafx.animation.PauseTransition;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import static com.michaelstucki.triremeflashcards.constants.Constants.cardToken;
+import javafx.util.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Card UI Controller
@@ -18,31 +21,39 @@ import static com.michaelstucki.triremeflashcards.constants.Constants.cardToken;
  * @since 2025-09-21
  */
 public class ControllerCards {
+    // Search waits for a pause in typing, then lists at most SEARCH_LIMIT best matches
+    private static final double SEARCH_DELAY_MILLIS = 200;
+    private static final int SEARCH_LIMIT = 200;
     @FXML
-    private Button cancel;
+    Button cancel;
     @FXML
-    private Button save;
+    Button save;
     @FXML
-    private MenuItem add;
+    MenuItem add;
     @FXML
-    private MenuItem edit;
+    MenuItem edit;
     @FXML
-    private MenuItem delete;
+    MenuItem delete;
     @FXML
-    private ContextMenu itemContextMenu;
+    ContextMenu itemContextMenu;
     @FXML
-    private Label deckName;
+    Label deckName;
     @FXML
-    private TextArea front;
+    TextArea front;
     @FXML
-    private TextArea back;
+    TextArea back;
     @FXML
-    private ListView<String> cardsView;
+    ListView<Card> cardsView;
+    @FXML
+    TextField search;
     private SceneManager sceneManager;
     private Deck deck;
     private String saveMode;
     private int selectedCardId;
-    private Dao dao;
+    private AsyncDao dao;
+    private PauseTransition searchDelay;
+    // Latest listing or search (older ones still running do not update the list)
+    private CompletableFuture<List<Card>> searchResults;
 
     /**
      * Set controller shared resources
@@ -54,14 +65,27 @@ public class ControllerCards {
         deck = sharedDeck;
         deckName.setText(deck.getName());
         // Clear UI
+        search.clear();
+        searchDelay.stop();
         resetListView();
     }
 
     private void resetListView() {
         front.clear();
         back.clear();
-        cardsView.getItems().clear();
-        deck.getCards().forEach((key, value) -> cardsView.getItems().add(value.toString()));
+        showCards();
+    }
+
+    // List all of the deck's cards, or, if there is search text, the cards matching it
+    private void showCards() {
+        String query = search.getText();
+        // Cards are listed as snapshots read off the FX thread; only the latest listing updates the list
+        CompletableFuture<List<Card>> results = query.isBlank() ? dao.getCards(deck)
+                : dao.searchCards(query, deck.getName(), SEARCH_LIMIT);
+        searchResults = results;
+        results.thenAccept(cards -> {
+            if (results == searchResults) cardsView.getItems().setAll(cards);
+        });
     }
 
     /**
@@ -74,18 +98,15 @@ public class ControllerCards {
         cancel.setDisable(true);
         // Only acts if card's front and back have content
         if (!front.getText().trim().isEmpty() && !back.getText().trim().isEmpty()) {
-            Card card;
             switch (saveMode) {
                 case "add":
-                    card = dao.addCard(front.getText(), back.getText(), deck);
-                    cardsView.getItems().add(card.toString());
+                    dao.addCard(front.getText(), back.getText(), deck).thenAccept(card -> {
+                        if (card != null) cardsView.getItems().add(card);
+                    });
                     break;
                 case "edit":
-                    card = deck.getCard(selectedCardId);
-                    card.setFront(front.getText());
-                    card.setBack(back.getText());
-                    dao.updateCard(card);
-                    resetListView();
+                    // The card is changed on the dao worker; the list then shows fresh snapshots
+                    dao.editCard(deck, selectedCardId, front.getText(), back.getText()).thenRun(this::resetListView);
                     break;
             }
         }
@@ -135,18 +156,20 @@ public class ControllerCards {
         back.setEditable(false);
         save.setDisable(true);
         cancel.setDisable(true);
-        dao = DaoSQLite.getDao();
+        dao = AsyncDao.getAsyncDao();
+
+        // Search as the user types
+        searchDelay = new PauseTransition(Duration.millis(SEARCH_DELAY_MILLIS));
+        searchDelay.setOnFinished(event -> showCards());
+        search.textProperty().addListener((observable, oldValue, newValue) -> searchDelay.playFromStart());
 
         // Select card
-        cardsView.getSelectionModel().selectedItemProperty().addListener(new ChangeListener<String>() {
+        cardsView.getSelectionModel().selectedItemProperty().addListener(new ChangeListener<Card>() {
             @Override
-            public void changed(ObservableValue<? extends String> observable, String oldValue, String newValue) {
+            public void changed(ObservableValue<? extends Card> observable, Card oldValue, Card newValue) {
                 if (newValue != null) {
-                    String[] tokens = newValue.split(cardToken);
-                    String frontStr = tokens[1];
-                    String backStr = tokens[2];
-                    front.setText(frontStr);
-                    back.setText(backStr);
+                    front.setText(newValue.getFront());
+                    back.setText(newValue.getBack());
                 } else {
                     front.clear();
                     back.clear();
@@ -168,10 +191,9 @@ public class ControllerCards {
 
         // Edit card
         edit.setOnAction(event -> {
-            String selectedItem = cardsView.getSelectionModel().getSelectedItem();
+            Card selectedItem = cardsView.getSelectionModel().getSelectedItem();
             if (selectedItem != null) {
-                String[] tokens = selectedItem.split(cardToken);
-                selectedCardId = Integer.parseInt((tokens[0]));
+                selectedCardId = selectedItem.getId();
                 front.setEditable(true);
                 back.setEditable(true);
                 front.requestFocus();
@@ -181,15 +203,16 @@ public class ControllerCards {
             }
         });
 
-        // Delete card
+        // Delete selected cards (one transaction: all are deleted or, on failure, none)
+        cardsView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         delete.setOnAction(event -> {
-            String selectedItem = cardsView.getSelectionModel().getSelectedItem();
-            if (selectedItem != null) {
-                String[] tokens = selectedItem.split(cardToken);
-                int id = Integer.parseInt((tokens[0]));
-                dao.deleteCard(id);
-                deck.deleteCard(id);
-                cardsView.getItems().remove(selectedItem);
+            List<Card> selectedItems = new ArrayList<>(cardsView.getSelectionModel().getSelectedItems());
+            if (!selectedItems.isEmpty()) {
+                dao.inTransaction(cardDao -> {
+                    for (Card selectedItem : selectedItems) cardDao.deleteCard(selectedItem.getId(), deck);
+                }).thenAccept(deleted -> {
+                    if (deleted) cardsView.getItems().removeAll(selectedItems);
+                });
             }
         });
     }
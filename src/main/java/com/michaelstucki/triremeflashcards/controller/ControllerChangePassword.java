@@ -1,17 +1,14 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
-import com.michaelstucki.triremeflashcards.dto.User;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
+import com.michaelstucki.triremeflashcards.util.Images;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
-import java.util.Objects;
 
 /**
  * Change Password UI Controller
@@ -21,27 +18,27 @@ import java.util.Objects;
  */
 public class ControllerChangePassword {
     @FXML
-    private TextField username;
+    TextField username;
     @FXML
-    private TextField oldPassword;
+    TextField oldPassword;
     @FXML
-    private PasswordField oldPasswordField;
+    PasswordField oldPasswordField;
     @FXML
-    private ImageView oldEyeIcon;
+    ImageView oldEyeIcon;
     @FXML
-    private TextField password;
+    TextField password;
     @FXML
-    private PasswordField passwordField;
+    PasswordField passwordField;
     @FXML
-    private PasswordField passwordRetype;
+    PasswordField passwordRetype;
     @FXML
-    private ImageView eyeIcon;
+    ImageView eyeIcon;
     @FXML
-    private Label userMessage;
+    Label userMessage;
     private boolean passwordVisible = false;
     private boolean oldPasswordVisible = false;
     private SceneManager sceneManager;
-    private Dao dao;
+    private AsyncDao dao;
 
     /**
      * Change Password Button's onAction
@@ -51,24 +48,25 @@ public class ControllerChangePassword {
         if (username.getText().isEmpty()) {
             userMessage.setText("username not entered!");
         } else {
-            User user = dao.getUser(username.getText());
-            if (user == null) {
-                userMessage.setText("unrecognized username!");
-            } else if (oldPassword.getText().isEmpty()) {
-                userMessage.setText("old password not entered!");
-            } else if (!oldPassword.getText().equals(user.getPassword())) {
-                userMessage.setText("invalid old password!");
-            } else if (password.getText().isEmpty()) {
-                userMessage.setText("new password not entered!");
-            } else if (!passwordRetype.getText().equals(password.getText())) {
-                userMessage.setText("new passwords do not match!");
-            } else {
-                dao.changeUserPassword(user.getUsername(), password.getText());
-                userMessage.setTextFill(Color.GREEN);
-                userMessage.setText("password changed!");
-                clearInputs();
-                sceneManager.showView("/fxml/welcome.fxml");
-            }
+            dao.getUser(username.getText()).thenAccept(user -> {
+                if (user == null) {
+                    userMessage.setText("unrecognized username!");
+                } else if (oldPassword.getText().isEmpty()) {
+                    userMessage.setText("old password not entered!");
+                } else if (!oldPassword.getText().equals(user.getPassword())) {
+                    userMessage.setText("invalid old password!");
+                } else if (password.getText().isEmpty()) {
+                    userMessage.setText("new password not entered!");
+                } else if (!passwordRetype.getText().equals(password.getText())) {
+                    userMessage.setText("new passwords do not match!");
+                } else {
+                    dao.changeUserPassword(user.getUsername(), password.getText());
+                    userMessage.setTextFill(Color.GREEN);
+                    userMessage.setText("password changed!");
+                    clearInputs();
+                    sceneManager.showView("/fxml/welcome.fxml");
+                }
+            });
         }
     }
 
@@ -80,14 +78,12 @@ public class ControllerChangePassword {
             oldPasswordField.setText(oldPassword.getText()); // Sync text
             oldPasswordField.setVisible(true);
             oldPassword.setVisible(false);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_closed.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_closed.jpg"));
         } else {
             oldPassword.setText(oldPasswordField.getText()); // Sync text
             oldPasswordField.setVisible(false);
             oldPassword.setVisible(true);
-            oldEyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_open.jpg"))));
+            oldEyeIcon.setImage(Images.get("/images/eye_open.jpg"));
         }
         oldPasswordVisible = !oldPasswordVisible;
     }
@@ -100,14 +96,12 @@ public class ControllerChangePassword {
             passwordField.setText(password.getText()); // Sync text
             passwordField.setVisible(true);
             password.setVisible(false);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_closed.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_closed.jpg"));
         } else {
             password.setText(passwordField.getText()); // Sync text
             passwordField.setVisible(false);
             password.setVisible(true);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_open.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_open.jpg"));
         }
         passwordVisible = !passwordVisible;
     }
@@ -142,7 +136,7 @@ public class ControllerChangePassword {
     @FXML
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        dao = DaoSQLite.getDao();
+        dao = AsyncDao.getAsyncDao();
 
         username.focusedProperty().addListener((observable, oldValue, newValue) -> {
             userMessage.setText("");
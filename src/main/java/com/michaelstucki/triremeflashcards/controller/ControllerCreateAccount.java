@@ -1,17 +1,14 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
-import com.michaelstucki.triremeflashcards.dto.User;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
+import com.michaelstucki.triremeflashcards.util.Images;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
-import java.util.Objects;
 
 /**
  * Create Account UI Controller
@@ -21,22 +18,22 @@ import java.util.Objects;
  */
 public class ControllerCreateAccount {
     @FXML
-    private TextField username;
+    TextField username;
     @FXML
-    private TextField password;
+    TextField password;
     @FXML
-    private PasswordField passwordField;
+    PasswordField passwordField;
     @FXML
-    private ImageView eyeIcon;
+    ImageView eyeIcon;
     @FXML
-    private Label userMessage;
+    Label userMessage;
     @FXML
-    private PasswordField passwordRetype;
+    PasswordField passwordRetype;
     @FXML
-    private TextField securityAnswer;
+    TextField securityAnswer;
     private boolean passwordVisible = false;
     private SceneManager sceneManager;
-    private Dao dao;
+    private AsyncDao dao;
 
     /**
      * Create Account button onAction
@@ -46,23 +43,24 @@ public class ControllerCreateAccount {
         if (username.getText().isEmpty()) {
             userMessage.setText("username not entered!");
         } else {
-            User user = dao.getUser(username.getText());
-            if (user != null) { // username already taken
-                userMessage.setText("username is taken!");
-            } else if (password.getText().isEmpty()) {
-                userMessage.setText("password not entered!");
-            } else if (!passwordRetype.getText().equals(password.getText())) {
-                userMessage.setText("passwords do not match!");
-            } else if (securityAnswer.getText().isEmpty()) {
-                userMessage.setText("security question not answered!");
-            } else {
-                // entries are all valid, so add user to database
-                dao.addUser(username.getText(), password.getText(), securityAnswer.getText());
-                userMessage.setTextFill(Color.GREEN);
-                userMessage.setText("account created!");
-                clearInputs();
-                sceneManager.showView("/fxml/welcome.fxml");
-            }
+            dao.getUser(username.getText()).thenAccept(user -> {
+                if (user != null) { // username already taken
+                    userMessage.setText("username is taken!");
+                } else if (password.getText().isEmpty()) {
+                    userMessage.setText("password not entered!");
+                } else if (!passwordRetype.getText().equals(password.getText())) {
+                    userMessage.setText("passwords do not match!");
+                } else if (securityAnswer.getText().isEmpty()) {
+                    userMessage.setText("security question not answered!");
+                } else {
+                    // entries are all valid, so add user to database (queued: later calls see the new user)
+                    dao.addUser(username.getText(), password.getText(), securityAnswer.getText());
+                    userMessage.setTextFill(Color.GREEN);
+                    userMessage.setText("account created!");
+                    clearInputs();
+                    sceneManager.showView("/fxml/welcome.fxml");
+                }
+            });
         }
     }
 
@@ -74,14 +72,12 @@ public class ControllerCreateAccount {
             passwordField.setText(password.getText()); // Sync text
             passwordField.setVisible(true);
             password.setVisible(false);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_closed.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_closed.jpg"));
         } else {
             password.setText(passwordField.getText()); // Sync text
             passwordField.setVisible(false);
             password.setVisible(true);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_open.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_open.jpg"));
         }
         passwordVisible = !passwordVisible;
     }
@@ -116,7 +112,7 @@ public class ControllerCreateAccount {
     @FXML
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        dao = DaoSQLite.getDao();
+        dao = AsyncDao.getAsyncDao();
 
         password.textProperty().bindBidirectional(passwordField.textProperty());
         username.focusedProperty().addListener((observable, oldValue, newValue) -> {
@@ -1,14 +1,22 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.dto.Deck;
+import com.michaelstucki.triremeflashcards.dto.DeckSummary;
+import com.michaelstucki.triremeflashcards.util.DeckExportTask;
+import com.michaelstucki.triremeflashcards.util.DeckImportTask;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldListCell;
+import javafx.scene.layout.HBox;
 import javafx.scene.paint.Color;
+import javafx.stage.FileChooser;
+import javafx.util.converter.DefaultStringConverter;
+import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -19,32 +27,48 @@ import java.util.Map;
  */
 public class ControllerDecks {
     @FXML
-    private MenuItem drill;
+    MenuItem drill;
     @FXML
-    private Label userMessage;
+    Label userMessage;
     @FXML
-    private TextField deckName;
+    TextField deckName;
     @FXML
-    private MenuItem open;
+    MenuItem open;
     @FXML
-    private MenuItem delete;
+    MenuItem delete;
     @FXML
-    private ContextMenu itemContextMenu;
+    ContextMenu itemContextMenu;
     @FXML
-    private ListView<String> decksView;
+    ListView<String> decksView;
+    @FXML
+    MenuItem importCards;
+    @FXML
+    MenuItem exportDeck;
+    @FXML
+    MenuItem exportAll;
+    @FXML
+    HBox taskProgress;
+    @FXML
+    ProgressIndicator taskIndicator;
     private SceneManager sceneManager;
-    private Dao dao;
+    private AsyncDao dao;
+    // Running import or export (one at a time)
+    private Task<Integer> backgroundTask;
+    // Deck summaries shown in decksView, keyed by deck name
+    private final Map<String, DeckSummary> summaries = new LinkedHashMap<>();
 
     /**
      * Set controller shared resources
      * Called by SceneManager before presenting UI
      */
     public void init() {
-        // Populate decksView with user's decks in database
-        Map<String, Deck> decks = dao.getDecks();
-        // Clear & repopulate list of decks
-        decksView.getItems().clear();
-        decks.keySet().forEach(name -> decksView.getItems().add(name));
+        // Populate decksView with summaries of user's decks in database (cards load when a deck is opened)
+        dao.getDeckSummaries().thenAccept(deckSummaries -> {
+            summaries.clear();
+            deckSummaries.forEach(summary -> summaries.put(summary.getName(), summary));
+            // Clear & repopulate list of decks
+            decksView.getItems().setAll(summaries.keySet());
+        });
     }
 
     /**
@@ -62,6 +86,7 @@ public class ControllerDecks {
             // Update data model, database, and UI
             Deck deck = new Deck(deckName.getText());
             dao.addDeck(deck);
+            summaries.put(deck.getName(), new DeckSummary(deck.getName(), 0, 0, null));
             userMessage.setTextFill(Color.GREEN);
             userMessage.setText("deck added!");
             decksView.getItems().add(deckName.getText());
@@ -74,6 +99,58 @@ public class ControllerDecks {
                 item.equalsIgnoreCase(searchString));
     }
 
+    // Run an import or export on a background thread, showing its progress and outcome
+    private void runInBackground(Task<Integer> task, String done) {
+        backgroundTask = task;
+        taskIndicator.progressProperty().bind(task.progressProperty());
+        showTaskProgress(true);
+        task.setOnSucceeded(event -> {
+            showTaskProgress(false);
+            init();
+            userMessage.setTextFill(Color.GREEN);
+            userMessage.setText(task.getValue() + " cards " + done + "!");
+        });
+        task.setOnCancelled(event -> {
+            showTaskProgress(false);
+            userMessage.setTextFill(Color.RED);
+            userMessage.setText("cancelled!");
+        });
+        task.setOnFailed(event -> {
+            showTaskProgress(false);
+            userMessage.setTextFill(Color.RED);
+            userMessage.setText("failed: " + task.getException().getMessage());
+        });
+        Thread thread = new Thread(task, "deck-transfer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void showTaskProgress(boolean visible) {
+        taskProgress.setVisible(visible);
+        taskProgress.setManaged(visible);
+        importCards.setDisable(visible);
+        exportDeck.setDisable(visible);
+        exportAll.setDisable(visible);
+    }
+
+    // Ask where to export to (.gz names produce a compressed archive)
+    private File chooseExportFile(String title, String initialName) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.setInitialFileName(initialName + ".csv");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Delimited text", "*.csv", "*.tsv", "*.csv.gz", "*.tsv.gz"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        return fileChooser.showSaveDialog(decksView.getScene().getWindow());
+    }
+
+    /**
+     * Cancel button onAction (stops a running import after its current batch, or abandons an export)
+     */
+    public void cancelTaskClick() {
+        if (backgroundTask != null) backgroundTask.cancel();
+    }
+
     /**
      * Welcome hyperlink onAction (goes to Welcome UI)
      */
@@ -82,7 +159,10 @@ public class ControllerDecks {
     /**
      * Logout hyperlink onAction (goes to Home/Login UI)
      */
-    public void logoutClick() { sceneManager.showView("/fxml/home.fxml"); }
+    public void logoutClick() {
+        dao.logout();
+        sceneManager.showView("/fxml/home.fxml");
+    }
 
     /**
      * Exit app
@@ -95,8 +175,8 @@ public class ControllerDecks {
     @FXML
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        // Get reference to DaoSQLite singleton (used to update model & database)
-        dao = DaoSQLite.getDao();
+        // Get reference to AsyncDao singleton (updates model & database off the JavaFX thread)
+        dao = AsyncDao.getAsyncDao();
         decksView.setItems(FXCollections.observableArrayList());
         decksView.setContextMenu(itemContextMenu);
 
@@ -104,9 +184,12 @@ public class ControllerDecks {
         open.setOnAction(event -> {
             String selectedItem = decksView.getSelectionModel().getSelectedItem();
             if (selectedItem != null) {
-                Deck deck = dao.getDeck(selectedItem);
-                sceneManager.setSharedDeck(deck);
-                sceneManager.showView("/fxml/cards.fxml");
+                // Cards load off the JavaFX thread; the Cards UI is shown once they have
+                dao.getDeck(selectedItem).thenAccept(deck -> {
+                    if (deck == null) return;
+                    sceneManager.setSharedDeck(deck);
+                    sceneManager.showView("/fxml/cards.fxml");
+                });
             }
         });
 
@@ -115,31 +198,74 @@ public class ControllerDecks {
             String selectedItem = decksView.getSelectionModel().getSelectedItem();
             if (selectedItem != null) {
                 dao.deleteDeck(selectedItem);
+                summaries.remove(selectedItem);
                 decksView.getItems().remove(selectedItem);
             }
         });
 
-        // Drill deck
+        // Drill deck (drills fetch only the deck's due cards, so the deck's cards are not loaded here)
         drill.setOnAction(event -> {
             String selectedItem = decksView.getSelectionModel().getSelectedItem();
             if (selectedItem != null) {
-                Deck deck = dao.getDeck(selectedItem);
+                Deck deck = new Deck(selectedItem);
                 sceneManager.setSharedDeck(deck);
                 sceneManager.showView("/fxml/drills.fxml");
             }
         });
 
+        // Import cards from a CSV/TSV file into deck
+        importCards.setOnAction(event -> {
+            String selectedItem = decksView.getSelectionModel().getSelectedItem();
+            if (selectedItem != null) {
+                FileChooser fileChooser = new FileChooser();
+                fileChooser.setTitle("Import cards into " + selectedItem);
+                fileChooser.getExtensionFilters().addAll(
+                        new FileChooser.ExtensionFilter("Delimited text", "*.csv", "*.tsv", "*.tab", "*.txt"),
+                        new FileChooser.ExtensionFilter("All files", "*.*"));
+                File file = fileChooser.showOpenDialog(decksView.getScene().getWindow());
+                if (file != null) {
+                    // The Dao is handed over by the dao worker, so the JavaFX thread never waits for it
+                    dao.getDao().thenAccept(cardDao -> runInBackground(
+                            new DeckImportTask(cardDao, selectedItem, file.toPath()), "imported into " + selectedItem));
+                }
+            }
+        });
+
+        // Export deck to a CSV/TSV file
+        exportDeck.setOnAction(event -> {
+            String selectedItem = decksView.getSelectionModel().getSelectedItem();
+            if (selectedItem != null) {
+                File file = chooseExportFile("Export " + selectedItem, selectedItem);
+                if (file != null) {
+                    dao.getDao().thenAccept(cardDao -> runInBackground(
+                            new DeckExportTask(cardDao, selectedItem, file.toPath()), "exported"));
+                }
+            }
+        });
+
+        // Export all decks to a CSV/TSV file
+        exportAll.setOnAction(event -> {
+            File file = chooseExportFile("Export all decks", "decks");
+            if (file != null) {
+                dao.getDao().thenAccept(cardDao -> runInBackground(
+                        new DeckExportTask(cardDao, null, file.toPath()), "exported"));
+            }
+        });
+
         // Rename deck (does not allow duplicate names)
         // remove selected deck from decks map & put new deck in its place
         // the deck's cards are unchanged, only the deck's name has changed
         // since map keys are immutable
         decksView.setEditable(true);
-        decksView.setCellFactory(TextFieldListCell.forListView());
+        decksView.setCellFactory(listView -> new DeckCell());
         decksView.setOnEditCommit(event -> {
             int index = event.getIndex();
             String oldName = event.getSource().getSelectionModel().getSelectedItem();
             String newName = event.getNewValue();
             if (newName != null && !newName.trim().isEmpty() && !containsIgnoreCase(newName)) {
+                DeckSummary summary = summaries.remove(oldName);
+                if (summary != null) summaries.put(newName, new DeckSummary(newName, summary.getCardCount(),
+                        summary.getDueCount(), summary.getLastReviewedDate()));
                 decksView.getItems().set(index, newName);
                 dao.changeDeckName(oldName, newName);
             }
@@ -153,4 +279,26 @@ public class ControllerDecks {
             userMessage.setText("");
         });
     }
+
+    // Shows a deck's name with its summary counts; editing (renaming) edits the name only
+    private class DeckCell extends TextFieldListCell<String> {
+        private DeckCell() { super(new DefaultStringConverter()); }
+
+        @Override
+        public void updateItem(String name, boolean empty) {
+            super.updateItem(name, empty);
+            if (!empty && name != null && !isEditing()) setText(describe(name));
+        }
+
+        @Override
+        public void cancelEdit() {
+            super.cancelEdit();
+            if (getItem() != null) setText(describe(getItem()));
+        }
+
+        private String describe(String name) {
+            DeckSummary summary = summaries.get(name);
+            return summary == null ? name : summary.toString();
+        }
+    }
 }
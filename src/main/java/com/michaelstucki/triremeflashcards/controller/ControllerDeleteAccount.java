@@ -1,15 +1,14 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.dto.User;
+import com.michaelstucki.triremeflashcards.util.Images;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
-import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -20,33 +19,36 @@ import java.util.Optional;
  */
 public class ControllerDeleteAccount {
     @FXML
-    private TextField username;
+    TextField username;
     @FXML
-    private TextField oldPassword;
+    TextField oldPassword;
     @FXML
-    private PasswordField oldPasswordField;
+    PasswordField oldPasswordField;
     @FXML
-    private ImageView oldEyeIcon;
+    ImageView oldEyeIcon;
     @FXML
-    private TextField password;
+    TextField password;
     @FXML
-    private PasswordField passwordField;
+    PasswordField passwordField;
     @FXML
-    private PasswordField passwordRetype;
+    PasswordField passwordRetype;
     @FXML
-    private ImageView eyeIcon;
+    ImageView eyeIcon;
     @FXML
-    private Label userMessage;
+    Label userMessage;
     private boolean passwordVisible = false;
     private SceneManager sceneManager;
-    private Dao dao;
+    private AsyncDao dao;
 
     /**
      * Delete Account button onAction
      */
     public void deleteAccountClick() {
-        // Validate user inputs (does not allow users to share names)
-        User user = dao.getCurrentUser();
+        dao.getCurrentUser().thenAccept(this::confirmDelete);
+    }
+
+    // Validate user inputs against the signed-in user, confirm, and delete the account
+    private void confirmDelete(User user) {
         if (password.getText().isEmpty()) {
             userMessage.setText("password not entered!");
         } else if (!password.getText().equals(user.getPassword())) {
@@ -57,8 +59,7 @@ public class ControllerDeleteAccount {
             userMessage.setText("passwords do not match!");
         } else {
             // Warn user
-            Image image = new Image(Objects.requireNonNull(getClass().getResourceAsStream(
-                    "/images/icons8-exclamation-mark-64.png")));
+            Image image = Images.get("/images/icons8-exclamation-mark-64.png");
             ImageView imageView = new ImageView(image);
             imageView.setFitHeight(48);
             imageView.setFitWidth(48);
@@ -84,14 +85,12 @@ public class ControllerDeleteAccount {
             passwordField.setText(password.getText()); // Sync text
             passwordField.setVisible(true);
             password.setVisible(false);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_closed.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_closed.jpg"));
         } else {
             password.setText(passwordField.getText()); // Sync text
             passwordField.setVisible(false);
             password.setVisible(true);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_open.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_open.jpg"));
         }
         passwordVisible = !passwordVisible;
     }
@@ -122,8 +121,8 @@ public class ControllerDeleteAccount {
     @FXML
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        // Get reference to DaoSQLite singleton (used to update model & database)
-        dao = DaoSQLite.getDao();
+        // Get reference to AsyncDao singleton (updates model & database off the JavaFX thread)
+        dao = AsyncDao.getAsyncDao();
 
         // Bidirectionally bind password inputs (so a change in one is reflected in the other)
         password.textProperty().bindBidirectional(passwordField.textProperty());
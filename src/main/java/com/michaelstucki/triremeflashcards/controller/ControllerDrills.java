@@ -1,7 +1,6 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.dto.Card;
 import com.michaelstucki.triremeflashcards.dto.Deck;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
@@ -10,9 +9,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Drills UI Controller
@@ -22,31 +19,35 @@ import java.util.stream.Collectors;
  */
 public class ControllerDrills {
     @FXML
-    private Label drillOver;
+    Label drillOver;
     @FXML
-    private Button start;
+    Button start;
     @FXML
-    private Button stop;
+    Button stop;
     @FXML
-    private Button pass;
+    Button pass;
     @FXML
-    private Button next;
+    Button next;
     @FXML
-    private Button fail;
+    Button fail;
     @FXML
-    private TextArea questionAnswer;
+    TextArea questionAnswer;
     @FXML
-    private Label deckName;
+    Label deckName;
 
     private SceneManager sceneManager;
     private Deck deck;
     private boolean isFront;
     private String front;
     private String back;
-    private Queue<Card> queue;
-    private LocalDate today;
-    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private Dao dao;
+    private Queue<DrillCard> queue;
+    // Today's date as an epoch day (card dates are epoch days)
+    private int today;
+    // Reviews and flushes run on the dao worker, which queues them to the write buffer
+    private AsyncDao asyncDao;
+
+    // A due card with its text, read on the dao worker (the card itself is only touched there)
+    private record DrillCard(Card card, String front, String back) {}
 
 
     /**
@@ -55,7 +56,7 @@ public class ControllerDrills {
      * @param sharedDeck Deck set in SceneManger singleton
      */
     public void init(Deck sharedDeck) {
-        today = LocalDate.now();
+        today = (int) LocalDate.now().toEpochDay();
         // Get access to deck selected on Deck's UI
         deck = sharedDeck;
         deckName.setText(deck.getName());
@@ -67,13 +68,11 @@ public class ControllerDrills {
         fail.setDisable(true);
     }
 
-    private void setupQueue() {
+    private void setupQueue(List<DrillCard> dueCards) {
         queue.clear();
 
-        // Put only the cards due today into a mutable list
-        List<Card> valueList = deck.getCards().values().stream()
-                .filter(card -> !LocalDate.parse(card.getDueDate(), dateTimeFormatter).isAfter(today))
-                .collect(Collectors.toCollection(ArrayList::new));
+        // Put the cards due today into a mutable list
+        List<DrillCard> valueList = new ArrayList<>(dueCards);
 
         // Shuffle the list of cards (needs a mutable list)
         Collections.shuffle(valueList);
@@ -90,8 +89,22 @@ public class ControllerDrills {
         drillOver.setText("Excellent work!");
         isFront = true;
         questionAnswer.clear();
+        start.setDisable(true);
+
+        // Fetch only the cards due today (from the deck's due index, or an indexed query) off the FX thread
+        asyncDao.getDueCards(deck, today, Integer.MAX_VALUE,
+                card -> new DrillCard(card, card.getFront(), card.getBack())).whenComplete((dueCards, failure) -> {
+            if (failure == null) {
+                startDrill(dueCards);
+            } else {
+                start.setDisable(false);
+            }
+        });
+    }
 
-        setupQueue();
+    // Build the drill queue from the due cards and enable the drill controls
+    private void startDrill(List<DrillCard> dueCards) {
+        setupQueue(dueCards);
         if (queue.isEmpty()) {
             drillOver.setText("No cards are due!");
             drillOver.setVisible(true);
@@ -109,6 +122,7 @@ public class ControllerDrills {
      * Stop button onAction
      */
     public void stopClick() {
+        asyncDao.flushCardUpdates();
         questionAnswer.clear();
         start.setDisable(false);
         stop.setDisable(true);
@@ -117,36 +131,10 @@ public class ControllerDrills {
         fail.setDisable(true);
     }
 
-    // Implements Leitner box spaced-repetition
-    // Each box in the series doubles the duration between reviews (1, 2, 4, 8,... days)
-    private void updateCard(Card card, String passFail) {
-        card.setNumberOfReviews(card.getNumberOfReviews() + 1);
-        card.setReviewedDate(today.toString());
-        switch (passFail) {
-            case "pass":
-                card.setNumberOfPasses(card.getNumberOfPasses() + 1);
-                int leitnerBox = card.getLeitnerBox();
-                leitnerBox++;
-                int leitnerTarget = card.getLeitnerTarget();
-                // Recapitulate lower boxes up to the current target before advancing the target
-                if (leitnerBox > leitnerTarget) {
-                    leitnerTarget = leitnerBox;
-                    leitnerBox = 0;
-                    card.setLeitnerBox(leitnerBox);
-                    card.setLeitnerTarget(leitnerTarget);
-                } else {
-                    card.setLeitnerBox(leitnerBox);
-                }
-                long daysToAdd = (long) Math.pow(2.0, leitnerBox);
-                card.setDueDate(today.plusDays(daysToAdd).toString());
-                break;
-            case "fail":
-                card.setLeitnerBox(0);
-                card.setLeitnerTarget(0);
-                card.setDueDate(today.plusDays(1).toString());
-                break;
-        }
-        dao.updateCard(card);
+    // Apply Leitner box spaced-repetition to the card (see LeitnerScheduler)
+    private void updateCard(DrillCard drillCard, String passFail) {
+        // Buffered: the card and its review log entry are written in batches, not once per click
+        asyncDao.reviewCard(drillCard.card(), passFail.equals("pass"), today);
     }
 
     /**
@@ -156,7 +144,7 @@ public class ControllerDrills {
         next.setDisable(false);
         pass.setDisable(true);
         fail.setDisable(true);
-        Card card = queue.poll();
+        DrillCard card = queue.poll();
         updateCard(card, "pass");
         if (queue.isEmpty()) {
             next.setDisable(true);
@@ -164,6 +152,8 @@ public class ControllerDrills {
             start.setDisable(false);
             questionAnswer.clear();
             drillOver.setVisible(true);
+            // Drill over: write this session's reviews
+            asyncDao.flushCardUpdates();
         }
     }
 
@@ -174,7 +164,7 @@ public class ControllerDrills {
         pass.setDisable(true);
         fail.setDisable(true);
         next.setDisable(false);
-        Card card = queue.poll();
+        DrillCard card = queue.poll();
         queue.add(card);
         updateCard(card, "fail");
     }
@@ -183,13 +173,17 @@ public class ControllerDrills {
      * Deck hyperlink onAction (goes to Decks UI)
      */
     public void decksClick() {
+        asyncDao.flushCardUpdates();
         sceneManager.showView("/fxml/decks.fxml");
     }
 
     /**
      * Welcome hyperlink onAction (goes to Welcome UI)
      */
-    public void welcomeClick() { sceneManager.showView("/fxml/welcome.fxml"); }
+    public void welcomeClick() {
+        asyncDao.flushCardUpdates();
+        sceneManager.showView("/fxml/welcome.fxml");
+    }
 
     /**
      * Exit app
@@ -202,8 +196,8 @@ public class ControllerDrills {
     @FXML
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        // Get reference to DaoSQLite singleton (used to update model & database)
-        dao = DaoSQLite.getDao();
+        // Get reference to AsyncDao singleton
+        asyncDao = AsyncDao.getAsyncDao();
 
         questionAnswer.setEditable(false);
         drillOver.setVisible(false);
@@ -219,9 +213,9 @@ public class ControllerDrills {
         next.setOnAction(event -> {
             next.setDisable(true);
             if (queue.peek() != null) {
-                Card card = queue.peek();
-                front = card.getFront();
-                back = card.getBack();
+                DrillCard card = queue.peek();
+                front = card.front();
+                back = card.back();
                 questionAnswer.setText(front);
                 pass.setDisable(false);
                 fail.setDisable(false);
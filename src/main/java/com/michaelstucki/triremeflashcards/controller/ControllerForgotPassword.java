@@ -1,9 +1,7 @@
 
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
-import com.michaelstucki.triremeflashcards.dto.User;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -18,13 +16,13 @@ import javafx.scene.paint.Color;
  */
 public class ControllerForgotPassword {
     @FXML
-    private TextField username;
+    TextField username;
     @FXML
-    private Label userMessage;
+    Label userMessage;
     @FXML
-    private TextField securityAnswer;
+    TextField securityAnswer;
     private SceneManager sceneManager;
-    private Dao dao;
+    private AsyncDao dao;
 
     /**
      * Recover Password button onAction
@@ -34,17 +32,18 @@ public class ControllerForgotPassword {
         if (username.getText().isEmpty()) {
             userMessage.setText("username not entered!");
         } else {
-            User user = dao.getUser(username.getText());
-            if (user == null) {
-                userMessage.setText("unrecognized username!");
-            } else if (securityAnswer.getText().isEmpty()) {
-                userMessage.setText("security answer not entered!");
-            } else if (!securityAnswer.getText().equals(user.getSecurityAnswer())) {
-                userMessage.setText("security answer is incorrect!");
-            } else {
-                userMessage.setTextFill(Color.GREEN);
-                userMessage.setText("password: " + user.getPassword());
-            }
+            dao.getUser(username.getText()).thenAccept(user -> {
+                if (user == null) {
+                    userMessage.setText("unrecognized username!");
+                } else if (securityAnswer.getText().isEmpty()) {
+                    userMessage.setText("security answer not entered!");
+                } else if (!securityAnswer.getText().equals(user.getSecurityAnswer())) {
+                    userMessage.setText("security answer is incorrect!");
+                } else {
+                    userMessage.setTextFill(Color.GREEN);
+                    userMessage.setText("password: " + user.getPassword());
+                }
+            });
         }
     }
 
@@ -73,8 +72,8 @@ public class ControllerForgotPassword {
      */
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        // Get reference to DaoSQLite singleton (used to update model & database)
-        dao = DaoSQLite.getDao();
+        // Get reference to AsyncDao singleton (updates model & database off the JavaFX thread)
+        dao = AsyncDao.getAsyncDao();
 
         username.focusedProperty().addListener((observable, oldValue, newValue) -> {
             userMessage.setText("");
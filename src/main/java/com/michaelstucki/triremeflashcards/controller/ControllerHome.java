@@ -1,17 +1,14 @@
 package com.michaelstucki.triremeflashcards.controller;
 
-import com.michaelstucki.triremeflashcards.dao.Dao;
-import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
-import com.michaelstucki.triremeflashcards.dto.User;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
+import com.michaelstucki.triremeflashcards.util.Images;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Hyperlink;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import java.util.Objects;
 
 /**
  * Home/Login UI Controller
@@ -21,20 +18,20 @@ import java.util.Objects;
  */
 public class ControllerHome {
     @FXML
-    private Hyperlink exit;
+    Hyperlink exit;
     @FXML
-    private TextField username;
+    TextField username;
     @FXML
-    private TextField password;
+    TextField password;
     @FXML
-    private PasswordField passwordField;
+    PasswordField passwordField;
     @FXML
-    private ImageView eyeIcon;
+    ImageView eyeIcon;
     @FXML
-    private Label userMessage;
+    Label userMessage;
     private boolean passwordVisible = false;
     private SceneManager sceneManager;
-    private Dao dao;
+    private AsyncDao dao;
 
     /**
      * Set controller shared resources
@@ -43,10 +40,8 @@ public class ControllerHome {
      */
     public void init() {
         // Initialize decks map by clearing it
+        // (the database itself is opened, and copied out of the JAR if need be, at startup; see Main)
         dao.clearDecks();
-        // Copy the JAR-internal database resource to external location on disk,
-        // since JAR-resources are read-only and the app requires read-write.
-        dao.copyDatabase();
     }
 
     /**
@@ -56,15 +51,16 @@ public class ControllerHome {
         if (username.getText().isEmpty()) {
             userMessage.setText("username not entered!");
         } else {
-            User user = dao.getUser(username.getText());
-            if (user == null) {
-                userMessage.setText("unrecognized username!");
-            } else if (!password.getText().equals(user.getPassword())) {
-                userMessage.setText("invalid password!");
-            } else {
-                clearInputs();
-                sceneManager.showView("/fxml/welcome.fxml");
-            }
+            dao.getUser(username.getText()).thenAccept(user -> {
+                if (user == null) {
+                    userMessage.setText("unrecognized username!");
+                } else if (!password.getText().equals(user.getPassword())) {
+                    userMessage.setText("invalid password!");
+                } else {
+                    clearInputs();
+                    sceneManager.showView("/fxml/welcome.fxml");
+                }
+            });
         }
     }
 
@@ -76,14 +72,12 @@ public class ControllerHome {
             passwordField.setText(password.getText()); // Sync text
             passwordField.setVisible(true);
             password.setVisible(false);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_closed.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_closed.jpg"));
         } else {
             password.setText(passwordField.getText()); // Sync text
             passwordField.setVisible(false);
             password.setVisible(true);
-            eyeIcon.setImage(new Image(Objects.requireNonNull(getClass().
-                    getResourceAsStream("/images/eye_open.jpg"))));
+            eyeIcon.setImage(Images.get("/images/eye_open.jpg"));
         }
         passwordVisible = !passwordVisible;
     }
@@ -120,8 +114,8 @@ public class ControllerHome {
      */
     public void initialize() {
         sceneManager = SceneManager.getScreenManager();
-        // Get reference to DaoSQLite singleton (used to update model & database)
-        dao = DaoSQLite.getDao();
+        // Get reference to AsyncDao singleton (updates model & database off the JavaFX thread)
+        dao = AsyncDao.getAsyncDao();
 
         password.textProperty().bindBidirectional(passwordField.textProperty());
         username.focusedProperty().addListener((observable, oldValue, newValue) -> {
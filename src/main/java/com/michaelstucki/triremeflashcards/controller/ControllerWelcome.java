@@ -1,5 +1,6 @@
 package com.michaelstucki.triremeflashcards.controller;
 
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.util.SceneManager;
 
 /**
@@ -10,6 +11,7 @@ import com.michaelstucki.triremeflashcards.util.SceneManager;
  */
 public class ControllerWelcome {
     private SceneManager sceneManager;
+    private AsyncDao dao;
 
     /**
      * Decks hyperlink onAction (goes to Decks UI)
@@ -29,7 +31,10 @@ public class ControllerWelcome {
     /**
      * Logout hyperlink onAction (goes to Home/Login UI)
      */
-    public void logoutClick() { sceneManager.showView("/fxml/home.fxml"); }
+    public void logoutClick() {
+        dao.logout();
+        sceneManager.showView("/fxml/home.fxml");
+    }
 
     /**
      * Exit app
@@ -39,7 +44,10 @@ public class ControllerWelcome {
     }
 
     /**
-     * Initialize UI by getting SceneManager singleton used to change between UIs
+     * Initialize UI by getting SceneManager and Dao singletons
      */
-    public void initialize() { sceneManager = SceneManager.getScreenManager();  }
+    public void initialize() {
+        sceneManager = SceneManager.getScreenManager();
+        dao = AsyncDao.getAsyncDao();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Deck;
+import com.michaelstucki.triremeflashcards.dto.DeckSummary;
+import com.michaelstucki.triremeflashcards.dto.User;
+import com.michaelstucki.triremeflashcards.util.LeitnerScheduler;
+import javafx.application.Platform;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous Dao facade for the UI, so that no database work runs on the JavaFX thread
+ * Calls run one at a time, in the order made, on a single worker thread. A call made after another
+ * therefore sees that call's changes. Results and failures are delivered through the delivery executor,
+ * which is Platform.runLater for the UI. Stages chained with thenAccept and similar methods run on the
+ * JavaFX thread too, so they can update controls directly. The Dao may be opened by the worker itself,
+ * as its first call, so that opening the database never holds up the caller.
+ * Cards are only read and changed on the worker: the card lists handed to the UI are snapshots, and card
+ * changes (edits and reviews) are made on the worker, so the UI never shares a Card with the worker.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class AsyncDao {
+    private static AsyncDao asyncDao;
+    private final CompletableFuture<Dao> dao;
+    private final ExecutorService worker;
+    private final Executor delivery;
+
+    /**
+     * AsyncDao constructor
+     * @param dao Dao the calls are made on
+     * @param delivery executor that results are delivered on
+     */
+    public AsyncDao(Dao dao, Executor delivery) {
+        this.delivery = delivery;
+        worker = newWorker();
+        this.dao = CompletableFuture.completedFuture(dao);
+    }
+
+    /**
+     * AsyncDao constructor that opens the Dao on the worker (ahead of every call made through it)
+     * @param opener opens the Dao the calls are made on
+     * @param delivery executor that results are delivered on
+     */
+    public AsyncDao(Supplier<Dao> opener, Executor delivery) {
+        this.delivery = delivery;
+        worker = newWorker();
+        this.dao = CompletableFuture.supplyAsync(opener, worker);
+    }
+
+    // A single worker: the Dao serializes its calls anyway, and one thread keeps them in order
+    private static ExecutorService newWorker() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dao-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the UI's AsyncDao (over the DaoSQLite singleton, opened on the worker, delivering on the JavaFX thread)
+     * @return AsyncDao singleton
+     */
+    public static synchronized AsyncDao getAsyncDao() {
+        if (asyncDao == null) asyncDao = new AsyncDao(DaoSQLite::getDao, Platform::runLater);
+        return asyncDao;
+    }
+
+    /**
+     * Get the underlying Dao, for background tasks that stream through it (such as deck imports and exports)
+     * It is handed over by the worker once the Dao is open and the calls made before this one have run, so
+     * the caller never waits and the task sees those calls' changes.
+     * @return Dao instance, delivered on the delivery executor
+     */
+    public CompletableFuture<Dao> getDao() { return call(dao -> dao); }
+
+    /**
+     * Run a Dao call on the worker
+     * @param call Dao call returning a result
+     * @return the call's result (or failure), delivered on the delivery executor
+     * @param <T> result type
+     */
+    public <T> CompletableFuture<T> call(Function<Dao, T> call) {
+        // The opener ran first on this same worker, so the Dao is ready by the time a call runs
+        return CompletableFuture.supplyAsync(() -> call.apply(dao.join()), worker)
+                .whenCompleteAsync((result, failure) -> {
+                    if (failure != null) System.out.println("Database call failed: " + failure.getMessage());
+                }, delivery);
+    }
+
+    /**
+     * Run a Dao call that returns nothing on the worker
+     * @param call Dao call
+     * @return completion (or failure), delivered on the delivery executor
+     */
+    public CompletableFuture<Void> run(Consumer<Dao> call) {
+        return call(dao -> {
+            call.accept(dao);
+            return null;
+        });
+    }
+
+    /**
+     * Copy JAR-internal database to location on disk (see Dao.copyDatabase)
+     * @return completion
+     */
+    public CompletableFuture<Void> copyDatabase() { return run(Dao::copyDatabase); }
+
+    /**
+     * Open the database and prepare the first queries ahead of first use (see Dao.warmUp)
+     * @return completion
+     */
+    public CompletableFuture<Void> warmUp() { return run(Dao::warmUp); }
+
+    /**
+     * End the session (see Dao.logout)
+     * @return completion
+     */
+    public CompletableFuture<Void> logout() { return run(Dao::logout); }
+
+    /**
+     * Clear all decks from the loaded decks cache
+     * @return completion
+     */
+    public CompletableFuture<Void> clearDecks() { return run(Dao::clearDecks); }
+
+    /**
+     * Run Dao calls as one unit of work on the worker (see Dao.inTransaction)
+     * @param work Dao calls to group (made on the worker)
+     * @return true if the unit was committed, false if a database error rolled it back (fails with the
+     *         exception if the work threw one)
+     */
+    public CompletableFuture<Boolean> inTransaction(Consumer<Dao> work) {
+        return call(dao -> dao.inTransaction(() -> work.accept(dao)));
+    }
+
+    /**
+     * Add user
+     * @param userName user name
+     * @param password user password
+     * @param securityAnswer user answer to security question
+     * @return completion
+     */
+    public CompletableFuture<Void> addUser(String userName, String password, String securityAnswer) {
+        return run(dao -> dao.addUser(userName, password, securityAnswer));
+    }
+
+    /**
+     * Get user
+     * @param userName user name
+     * @return User instance (null if there is no such user)
+     */
+    public CompletableFuture<User> getUser(String userName) { return call(dao -> dao.getUser(userName)); }
+
+    /**
+     * Get current user instance
+     * @return User instance
+     */
+    public CompletableFuture<User> getCurrentUser() { return call(Dao::getCurrentUser); }
+
+    /**
+     * Change user password
+     * @param userName user name
+     * @param password user password
+     * @return completion
+     */
+    public CompletableFuture<Void> changeUserPassword(String userName, String password) {
+        return run(dao -> dao.changeUserPassword(userName, password));
+    }
+
+    /**
+     * Delete user and end the session
+     * @param userName user name
+     * @return completion
+     */
+    public CompletableFuture<Void> deleteUser(String userName) {
+        return run(dao -> {
+            dao.deleteUser(userName);
+            dao.logout();
+        });
+    }
+
+    /**
+     * Add deck (unless the user has a deck of that name)
+     * @param deck Deck instance
+     * @return true if the deck was added
+     */
+    public CompletableFuture<Boolean> addDeck(Deck deck) { return call(dao -> dao.addDeck(deck)); }
+
+    /**
+     * Get deck with its cards (loaded on first use and cached)
+     * @param deckName deck name
+     * @return Deck instance (null if the user has no such deck)
+     */
+    public CompletableFuture<Deck> getDeck(String deckName) { return call(dao -> dao.getDeck(deckName)); }
+
+    /**
+     * Get a summary of each of the user's decks
+     * @return deck summaries
+     */
+    public CompletableFuture<List<DeckSummary>> getDeckSummaries() { return call(Dao::getDeckSummaries); }
+
+    /**
+     * Change deck's name
+     * @param oldName current deck name
+     * @param newName new deck name
+     * @return completion
+     */
+    public CompletableFuture<Void> changeDeckName(String oldName, String newName) {
+        return run(dao -> dao.changeDeckName(oldName, newName));
+    }
+
+    /**
+     * Delete deck
+     * @param deckName deck name
+     * @return completion
+     */
+    public CompletableFuture<Void> deleteDeck(String deckName) { return run(dao -> dao.deleteDeck(deckName)); }
+
+    /**
+     * Get the cards of a deck that are due on or before a date
+     * The cards are the model's own; read and review them on the worker only (see reviewCard).
+     * @param deck Deck instance (its cards need not be loaded)
+     * @param dueDay due date cut-off as an epoch day
+     * @param limit maximum number of cards returned
+     * @param prepare maps each due card (on the worker) to what the caller keeps of it
+     * @return due cards, as mapped by prepare
+     * @param <T> type the cards are mapped to
+     */
+    public <T> CompletableFuture<List<T>> getDueCards(Deck deck, int dueDay, int limit, Function<Card, T> prepare) {
+        return call(dao -> dao.getDueCards(deck, dueDay, limit).stream().map(prepare).toList());
+    }
+
+    /**
+     * Get a snapshot of each of a loaded deck's cards
+     * @param deck Deck instance (with its cards loaded)
+     * @return Card snapshots
+     */
+    public CompletableFuture<List<Card>> getCards(Deck deck) {
+        return call(dao -> deck.getCards().toList().stream().map(Card::new).toList());
+    }
+
+    /**
+     * Search card fronts and backs (see Dao.searchCards)
+     * @param query words to search for
+     * @param deckName deck to search, or null to search all of the user's decks
+     * @param limit maximum number of cards returned
+     * @return snapshots of the matching cards, best match first
+     */
+    public CompletableFuture<List<Card>> searchCards(String query, String deckName, int limit) {
+        return call(dao -> dao.searchCards(query, deckName, limit).stream().map(Card::new).toList());
+    }
+
+    /**
+     * Add card
+     * @param front front text
+     * @param back back text
+     * @param deck associated deck
+     * @return snapshot of the new card (null if the card could not be added)
+     */
+    public CompletableFuture<Card> addCard(String front, String back, Deck deck) {
+        return call(dao -> {
+            Card card = dao.addCard(front, back, deck);
+            return card == null ? null : new Card(card);
+        });
+    }
+
+    /**
+     * Change card's front and back text
+     * @param deck Deck instance (with its cards loaded)
+     * @param cardId card ID
+     * @param front new front text
+     * @param back new back text
+     * @return completion
+     */
+    public CompletableFuture<Void> editCard(Deck deck, int cardId, String front, String back) {
+        return run(dao -> {
+            Card card = deck.getCard(cardId);
+            if (card == null) return;
+            card.setFront(front);
+            card.setBack(back);
+            dao.updateCard(card);
+        });
+    }
+
+    /**
+     * Review a card: reschedule it (see LeitnerScheduler.review) and queue the review (see Dao.queueReview)
+     * @param card Card instance (as returned by getDueCards)
+     * @param passed true if the card was answered correctly
+     * @param today review date as an epoch day
+     * @return completion
+     */
+    public CompletableFuture<Void> reviewCard(Card card, boolean passed, int today) {
+        return run(dao -> dao.queueReview(card, LeitnerScheduler.review(card, passed, today)));
+    }
+
+    /**
+     * Write queued reviews (see Dao.flushCardUpdates)
+     * @return completion
+     */
+    public CompletableFuture<Void> flushCardUpdates() { return run(Dao::flushCardUpdates); }
+
+    /**
+     * Finish queued calls, then close the Dao (called on app exit)
+     */
+    public void close() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS)) System.out.println("Database calls still running at exit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dao.isDone() && !dao.isCompletedExceptionally()) dao.join().close();
+    }
+}
@@ -0,0 +1,150 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static com.michaelstucki.triremeflashcards.constants.Constants.verbose;
+
+/**
+ * Manages the long-lived SQLite connection used by DaoSQLite
+ * The connection is opened and configured once, health-checked before reuse after idle periods,
+ * reopened after errors that break it, and closed when the app exits.
+ * Opening a connection brings the database up to the latest schema version (see Migrations).
+ * Each connection carries a StatementCache so hot statements are parsed only once per connection,
+ * and is tuned with the pragmas of the configured PerformanceProfile.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class ConnectionManager {
+    // Re-validate a connection that has been idle for longer than this
+    private static final long IDLE_CHECK_NANOS = 30_000_000_000L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private String url;
+    private final PerformanceProfile profile = PerformanceProfile.configured();
+    private Connection connection;
+    private StatementCache statements;
+    private long lastUsed;
+    // Statement cache counts of connections that have since been closed
+    private long retiredHits;
+    private long retiredMisses;
+
+    /**
+     * ConnectionManager constructor
+     * @param url JDBC URL of the database
+     */
+    ConnectionManager(String url) {
+        this.url = url;
+        if (verbose) System.out.println("Database profile: " + profile);
+    }
+
+    /**
+     * Point the manager at a different database (closes the current connection if it changed)
+     * @param url JDBC URL of the database
+     */
+    synchronized void setUrl(String url) {
+        if (!url.equals(this.url)) {
+            close();
+            this.url = url;
+        }
+    }
+
+    /**
+     * Get the shared connection, opening (or reopening) it if needed
+     * @return open Connection instance
+     * @throws SQLException if the database cannot be opened
+     */
+    synchronized Connection getConnection() throws SQLException {
+        long now = System.nanoTime();
+        if (connection != null && (connection.isClosed() ||
+                (now - lastUsed > IDLE_CHECK_NANOS && !connection.isValid(VALIDATION_TIMEOUT_SECONDS)))) {
+            discard();
+        }
+        if (connection == null) {
+            Connection opened = DriverManager.getConnection(url);
+            try {
+                configure(opened);
+                Migrations.migrate(opened);
+            } catch (SQLException e) {
+                opened.close();
+                throw e;
+            }
+            connection = opened;
+            statements = new StatementCache(connection);
+        }
+        lastUsed = now;
+        return connection;
+    }
+
+    /**
+     * Get the cached prepared statement for an SQL command on the shared connection
+     * @param sql SQL command with ? placeholders
+     * @return PreparedStatement instance (do not close it)
+     * @throws SQLException if the database cannot be opened or the statement cannot be prepared
+     */
+    synchronized PreparedStatement prepare(String sql) throws SQLException {
+        getConnection();
+        return statements.prepare(sql);
+    }
+
+    /**
+     * Get number of statement requests served from the cache this session
+     * @return statement cache hits
+     */
+    synchronized long getStatementHits() {
+        return retiredHits + (statements == null ? 0 : statements.getHits());
+    }
+
+    /**
+     * Get number of statement requests that had to prepare a statement this session
+     * @return statement cache misses
+     */
+    synchronized long getStatementMisses() {
+        return retiredMisses + (statements == null ? 0 : statements.getMisses());
+    }
+
+    // Per-connection settings applied once when the connection is opened
+    private void configure(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON;");
+        }
+        profile.apply(connection);
+    }
+
+    /**
+     * Report a database error and drop the connection if the error left it unusable
+     * @param e error raised while using the connection
+     */
+    synchronized void recover(SQLException e) {
+        System.out.println("Database error: " + e.getMessage());
+        try {
+            if (connection != null && !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) discard();
+        } catch (SQLException ex) {
+            discard();
+        }
+    }
+
+    // Close connection quietly and forget it so the next request reopens it
+    private void discard() {
+        if (statements != null) {
+            retiredHits += statements.getHits();
+            retiredMisses += statements.getMisses();
+            statements.close();
+            statements = null;
+        }
+        try {
+            if (connection != null) connection.close();
+        } catch (SQLException e) {
+            System.out.println("Database error: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    /**
+     * Close the connection (a later request reopens it)
+     */
+    synchronized void close() { discard(); }
+}
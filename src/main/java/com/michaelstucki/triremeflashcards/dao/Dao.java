@@ -2,8 +2,14 @@ package com.michaelstucki.triremeflashcards.dao;
 
 import com.michaelstucki.triremeflashcards.dto.Card;
 import com.michaelstucki.triremeflashcards.dto.Deck;
+import com.michaelstucki.triremeflashcards.dto.DeckSummary;
+import com.michaelstucki.triremeflashcards.dto.Review;
+import com.michaelstucki.triremeflashcards.dto.ReviewDay;
 import com.michaelstucki.triremeflashcards.dto.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Dao (Data Access Object) Interface
@@ -17,6 +23,33 @@ public interface Dao {
      */
     void copyDatabase();
 
+    /**
+     * Open the database and prepare the queries of sign-in and the decks UI ahead of first use
+     * (called once at startup, so the first sign-in does not pay for them)
+     */
+    void warmUp();
+
+    /**
+     * Write queued card updates and close the database connection (called on app exit)
+     */
+    void close();
+
+    /**
+     * End the session: write its queued reviews and release its user and loaded decks
+     */
+    void logout();
+
+    /**
+     * Run work as a unit of work: the Dao calls it makes join one transaction, committed once at the end
+     * If a call fails or the work throws, the database and the Deck/Card model changes are rolled back
+     * (an unchecked exception thrown by the work is rethrown after the rollback).
+     * Units nest; a failed inner unit rolls back only its own changes, and the outer unit carries on
+     * (after catching the inner unit's exception, if it threw one).
+     * @param work Dao calls to group (made on the calling thread)
+     * @return true if the unit was committed, false if a database error rolled it back
+     */
+    boolean inTransaction(Runnable work);
+
     /**
      * Add user
      * @param userName user name
@@ -52,24 +85,73 @@ public interface Dao {
     void deleteUser(String userName);
 
     /**
-     * Add deck
+     * Add deck (unless the user has a deck of that name)
      * @param deck Deck instance
+     * @return true if the deck was added
      */
-    void addDeck(Deck deck);
+    boolean addDeck(Deck deck);
 
     /**
-     * Get deck
+     * Get deck with its cards (loaded on first use and cached)
      * @param deckName deck name
-     * @return Deck instance
+     * @return Deck instance (null if the user has no such deck)
      */
     Deck getDeck(String deckName);
 
+    /**
+     * Get the cards of a deck that are due on or before a date, without loading the rest of the deck
+     * @param deck Deck instance (its cards need not be loaded)
+     * @param dueDay due date cut-off as an epoch day (usually today)
+     * @param limit maximum number of cards returned (oldest due first)
+     * @return due Card instances
+     */
+    List<Card> getDueCards(Deck deck, int dueDay, int limit);
+
+    /**
+     * Search card fronts and backs (full-text, ignoring case and Latin accents)
+     * Each word of the query must occur in the card; the last word also matches as a prefix.
+     * @param query words to search for (plain text)
+     * @param deckName deck to search, or null to search all of the user's decks
+     * @param limit maximum number of cards returned
+     * @return matching Card instances, best match first (empty for a blank query)
+     */
+    List<Card> searchCards(String query, String deckName, int limit);
+
+    /**
+     * Get a summary of each of the user's decks (name, card count, due count, last reviewed date)
+     * without loading any cards
+     * @return deck summaries
+     */
+    List<DeckSummary> getDeckSummaries();
+
     /**
      * Get all user's decks
      * @return map of decks
      */
     Map<String, Deck> getDecks();
 
+    /**
+     * Get all user's decks, optionally with their cards
+     * @param withCards true to load each deck's cards, false to load the decks only (with no cards)
+     * @return map of decks
+     */
+    Map<String, Deck> getDecks(boolean withCards);
+
+    /**
+     * Count cards in the database
+     * @param deckName deck name, or null for all of the user's decks
+     * @return number of cards
+     */
+    int countCards(String deckName);
+
+    /**
+     * Stream cards straight from the database, bypassing the decks model (memory use stays flat)
+     * @param deckName deck name, or null for all of the user's decks
+     * @param action called with each card's deck name and a transient Card instance
+     * @throws DaoException if the cards cannot be read, so a failed read is never taken for the end
+     */
+    void forEachCard(String deckName, BiConsumer<String, Card> action);
+
     /**
      * Change deck's name
      * @param oldName current deck name
@@ -92,12 +174,65 @@ public interface Dao {
      */
     Card addCard(String front, String back, Deck deck);
 
+    /**
+     * Add many cards to a deck in a single transaction
+     * @param deck associated deck
+     * @param cards front and back text of each card to add (e.g. {@code Map.entry(front, back)})
+     * @return Card instances in the order given (empty if the cards could not be added)
+     */
+    List<Card> addCards(Deck deck, List<Map.Entry<String, String>> cards);
+
+    /**
+     * Insert many cards into a deck in a single transaction, bypassing the decks model
+     * No Card instances are made and the deck need not be loaded; a loaded copy of the deck is dropped
+     * from the model so that it is reloaded, with the new cards, the next time it is opened.
+     * @param deckName deck name
+     * @param cards front and back text of each card to insert (e.g. {@code Map.entry(front, back)})
+     * @return number of cards inserted (0 if the cards could not be inserted)
+     */
+    int importCards(String deckName, List<Map.Entry<String, String>> cards);
+
     /**
      * Change card's front and/or back text
      * @param card @{Card} instance
      */
     void updateCard(Card card);
 
+    /**
+     * Write several cards' current state in a single transaction
+     * @param cards Card instances
+     */
+    void updateCards(Collection<Card> cards);
+
+    /**
+     * Queue a reviewed card to be written in a later batch (returns without waiting on the database)
+     * Queued updates of the same card are coalesced; all are written on flush and on close.
+     * @param card reviewed Card instance
+     */
+    void queueCardUpdate(Card card);
+
+    /**
+     * Queue a reviewed card together with the review's log entry (returns without waiting on the database)
+     * The card's state is coalesced like queueCardUpdate; every review is appended to the review log.
+     * @param card reviewed Card instance
+     * @param review Pass or Fail given to the card
+     */
+    void queueReview(Card card, Review review);
+
+    /**
+     * Get a deck's daily review totals from a date onward (kept by the database as reviews are logged,
+     * and retained after old review log entries are compacted away)
+     * @param deckName deck name
+     * @param fromDay first date included (epoch day)
+     * @return totals per day that had reviews, oldest first
+     */
+    List<ReviewDay> getReviewHistory(String deckName, int fromDay);
+
+    /**
+     * Ask for queued card updates to be written now, in the background
+     */
+    void flushCardUpdates();
+
     /**
      * Delete card
      * @param cardId card's ID
@@ -105,7 +240,14 @@ public interface Dao {
     void deleteCard(int cardId);
 
     /**
-     * Clear all decks from decks {@code Map<String, Deck>}
+     * Delete card from the database and from its deck
+     * @param cardId card's ID
+     * @param deck deck holding the card
+     */
+    void deleteCard(int cardId, Deck deck);
+
+    /**
+     * Clear all decks from the loaded decks cache
      */
     void clearDecks();
 }
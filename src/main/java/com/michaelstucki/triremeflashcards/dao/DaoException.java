@@ -0,0 +1,18 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+/**
+ * Unchecked database failure, for Dao calls whose caller must not mistake a failed read for a short one
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class DaoException extends RuntimeException {
+    /**
+     * DaoException constructor
+     * @param message what failed
+     * @param cause underlying database error
+     */
+    public DaoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
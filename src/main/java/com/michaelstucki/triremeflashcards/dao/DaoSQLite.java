@@ -2,51 +2,194 @@ package com.michaelstucki.triremeflashcards.dao;
 
 import com.michaelstucki.triremeflashcards.dto.Card;
 import com.michaelstucki.triremeflashcards.dto.Deck;
+import com.michaelstucki.triremeflashcards.dto.DeckSummary;
+import com.michaelstucki.triremeflashcards.dto.Review;
+import com.michaelstucki.triremeflashcards.dto.ReviewDay;
 import com.michaelstucki.triremeflashcards.dto.User;
 
-import java.io.*;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.CodeSource;
 import java.sql.*;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static com.michaelstucki.triremeflashcards.constants.Constants.*;
 
 /**
- * Dao (Data Access Object) SQLite implementation (a singleton shared by controllers)
+ * Dao (Data Access Object) SQLite implementation
+ * Each instance is a session: it holds the signed-in user and that user's loaded decks. getDao() is the
+ * session the UI controllers share; openSession() opens more. All sessions share one connection and
+ * review write buffer, and serialize their use of it on a shared lock.
  * @author Michael Stucki
  * @version 1.0
  * @since 2025-09-21
  */
 public class DaoSQLite implements Dao {
     private static DaoSQLite DAO;
-    private final Map<String, Deck> decks;
-    private User user;
-    private String url;
+    // SQL commands (prepared once per connection and bound with typed parameters)
+    private static final String INSERT_USER = "INSERT INTO " + usersTable +
+            " (userName, password, securityAnswer) VALUES (?, ?, ?);";
+    private static final String SELECT_USER = "SELECT * FROM " + usersTable + " WHERE userName = ?;";
+    private static final String UPDATE_PASSWORD = "UPDATE " + usersTable + " SET password = ? WHERE username = ?;";
+    private static final String DELETE_USER = "DELETE FROM " + usersTable + " WHERE username = ?;";
+    // Inserts nothing if the user has a deck of that name, so the check and the insert are one statement
+    private static final String INSERT_DECK = "INSERT INTO decks (name, user_id) SELECT ?, u.user_id FROM users u " +
+            "WHERE u.username = ? AND NOT EXISTS (SELECT 1 FROM decks d WHERE d.user_id = u.user_id AND d.name = ?);";
+    private static final String SELECT_DECKS = "SELECT d.deck_id, d.name FROM decks d " +
+            "JOIN users u on d.user_id = u.user_id " +
+            "WHERE username = ? ORDER BY d.deck_id;";
+    private static final String SELECT_DECKS_WITH_CARDS = "SELECT d.deck_id, d.name, c.card_id, c.front, c.back, " +
+            "c.leitner_box, c.leitner_target, c.creation_date, c.reviewed_date, c.due_date, " +
+            "c.number_reviews, c.number_passes FROM decks d " +
+            "JOIN users u ON u.user_id = d.user_id " +
+            "LEFT JOIN cards c ON c.deck_id = d.deck_id " +
+            "WHERE u.username = ? ORDER BY d.deck_id;";
+    private static final String SELECT_DECK_CARDS = "SELECT * FROM cards WHERE deck_id = ?;";
+    // Never-reviewed cards keep their creation date as reviewed date, so only reviewed cards count
+    private static final String SELECT_DECK_SUMMARIES = "SELECT d.deck_id, d.name, COUNT(c.card_id) AS card_count, " +
+            "COALESCE(SUM(c.due_date <= ?), 0) AS due_count, " +
+            "MAX(CASE WHEN c.number_reviews > 0 THEN c.reviewed_date END) AS last_reviewed FROM decks d " +
+            "JOIN users u ON u.user_id = d.user_id " +
+            "LEFT JOIN cards c ON c.deck_id = d.deck_id " +
+            "WHERE u.username = ? GROUP BY d.deck_id ORDER BY d.deck_id;";
+    // Served by idx_cards_deck_due: reads only the due rows, oldest due first
+    private static final String SELECT_DUE_CARDS = "SELECT * FROM cards WHERE deck_id = ? AND due_date <= ? " +
+            "ORDER BY due_date LIMIT ?;";
+    // Full-text matches (cards_fts) ranked best first by bm25, within a deck or across the user's decks
+    private static final String SEARCH_DECK_CARDS = "SELECT c.* FROM cards_fts f " +
+            "JOIN cards c ON c.card_id = f.rowid " +
+            "WHERE cards_fts MATCH ? AND c.deck_id = ? ORDER BY f.rank LIMIT ?;";
+    private static final String SEARCH_USER_CARDS = "SELECT c.* FROM cards_fts f " +
+            "JOIN cards c ON c.card_id = f.rowid " +
+            "JOIN decks d ON d.deck_id = c.deck_id " +
+            "WHERE cards_fts MATCH ? AND d.user_id = (SELECT user_id FROM users WHERE username = ?) " +
+            "ORDER BY f.rank LIMIT ?;";
+    private static final String UPDATE_DECK_NAME = "UPDATE decks SET name = ? " +
+            "WHERE user_id = (SELECT user_id FROM users WHERE username = ?) AND name = ?;";
+    private static final String DELETE_DECK = "DELETE FROM decks WHERE user_id = (SELECT user_id from users " +
+            "WHERE username = ?) AND name = ?;";
+    private static final String CARD_COLUMNS = "card_id, front, back, leitner_box, leitner_target, " +
+            "creation_date, reviewed_date, due_date, number_reviews, number_passes";
+    private static final String SELECT_DECK_ID = "SELECT deck_id FROM decks d JOIN users u ON d.user_id = u.user_id " +
+            "WHERE u.username = ? AND d.name = ?;";
+    // New cards start in box 0 and are due on their creation date; RETURNING hands back the stored row
+    private static final String INSERT_CARD = "INSERT INTO cards (front, back, leitner_box, leitner_target, " +
+            "creation_date, reviewed_date, due_date, deck_id, number_reviews, number_passes) " +
+            "VALUES (?, ?, 0, 0, ?, ?, ?, " +
+            "(SELECT deck_id FROM decks d JOIN users u ON d.user_id = u.user_id " +
+            "WHERE u.username = ? AND d.name = ?), 0, 0) RETURNING " + CARD_COLUMNS + ";";
+    private static final String INSERT_DECK_CARD = "INSERT INTO cards (front, back, leitner_box, leitner_target, " +
+            "creation_date, reviewed_date, due_date, deck_id, number_reviews, number_passes) " +
+            "VALUES (?, ?, 0, 0, ?, ?, ?, ?, 0, 0) RETURNING " + CARD_COLUMNS + ";";
+    private static final String IMPORT_DECK_CARD = "INSERT INTO cards (front, back, leitner_box, leitner_target, " +
+            "creation_date, reviewed_date, due_date, deck_id, number_reviews, number_passes) " +
+            "VALUES (?, ?, 0, 0, ?, ?, ?, ?, 0, 0);";
+    // Export reads cards in chunks ordered by card_id (keyset pagination) so no chunk holds the connection long
+    private static final int EXPORT_CHUNK_SIZE = 5000;
+    private static final String SELECT_DECK_CARD_CHUNK = "SELECT d.name, c.* FROM cards c " +
+            "JOIN decks d ON d.deck_id = c.deck_id " +
+            "WHERE c.deck_id = ? AND c.card_id > ? ORDER BY c.card_id LIMIT ?;";
+    private static final String SELECT_USER_CARD_CHUNK = "SELECT d.name, c.* FROM cards c " +
+            "JOIN decks d ON d.deck_id = c.deck_id " +
+            "WHERE d.user_id = (SELECT user_id FROM users WHERE username = ?) AND c.card_id > ? " +
+            "ORDER BY c.card_id LIMIT ?;";
+    private static final String COUNT_DECK_CARDS = "SELECT COUNT(*) FROM cards WHERE deck_id = ?;";
+    private static final String COUNT_USER_CARDS = "SELECT COUNT(*) FROM cards c " +
+            "JOIN decks d ON d.deck_id = c.deck_id " +
+            "WHERE d.user_id = (SELECT user_id FROM users WHERE username = ?);";
+    private static final String UPDATE_CARD = "UPDATE cards SET front = ?, back = ?, leitner_box = ?, " +
+            "leitner_target = ?, reviewed_date = ?, due_date = ?, number_reviews = ?, number_passes = ? " +
+            "WHERE card_id = ?;";
+    private static final String DELETE_CARD = "DELETE FROM cards WHERE card_id = ?;";
+    private static final String SELECT_CARD = "SELECT * FROM cards WHERE card_id = ?;";
+    // The review's deck is read from the card's row; a card deleted before the flush is not logged
+    private static final String INSERT_REVIEW = "INSERT INTO review_log (card_id, deck_id, review_day, " +
+            "reviewed_at, passed, box_before, box_after) " +
+            "SELECT card_id, deck_id, ?, ?, ?, ?, ? FROM cards WHERE card_id = ?;";
+    private static final String SELECT_REVIEW_HISTORY = "SELECT day, reviews, passes FROM review_daily " +
+            "WHERE deck_id = ? AND day >= ? ORDER BY day;";
+    // Review log entries are kept this many days; older ones live on only in the daily totals (review_daily)
+    private static final int REVIEW_LOG_RETAIN_DAYS = Integer.getInteger("trireme.reviewLog.retainDays", 90);
+    private static final long COMPACT_INTERVAL_MINUTES = 60;
+    // Compaction deletes in chunks, each in its own short transaction, so drills are never blocked for long
+    private static final int COMPACT_CHUNK_SIZE = 5000;
+    private static final String COMPACT_REVIEW_LOG = "DELETE FROM review_log WHERE review_id IN " +
+            "(SELECT review_id FROM review_log WHERE review_day < ? LIMIT ?);";
+    // Session state: the signed-in user and the decks whose cards are loaded (cards are loaded when a
+    // deck is opened, not at login)
+    private final DeckCache decks;
+    private volatile User user;
+    // Database state shared with every other session; its monitor serializes use of the connection
+    private final SharedDatabase shared;
+    // Long-lived connection shared by all DAO operations (shared.connections)
+    private final ConnectionManager connections;
+    // Review results waiting to be written in batches (shared.writeBuffer)
+    private final ReviewWriteBuffer writeBuffer;
 
-    private DaoSQLite() {
-        decks = new HashMap<>();
+    // State shared by all sessions on one database: the connection, the review write buffer, and the
+    // unit of work in progress. DAO methods of every session synchronize on it.
+    private static final class SharedDatabase {
+        private final ConnectionManager connections;
+        private final ReviewWriteBuffer writeBuffer;
+        // Unit of work state (guarded by the monitor, which a unit holds throughout): nesting depth,
+        // the thread running the unit, whether a database error doomed the current level, and inverse
+        // actions that undo the model changes made inside the unit (newest first)
+        private int unitDepth;
+        private volatile Thread unitOwner;
+        private boolean rollbackOnly;
+        private final Deque<Runnable> undoLog = new ArrayDeque<>();
 
-        // Set URL based on whether running inside a JAR or not
-        if (!isRunningInJar()) {
-            url = "jdbc:sqlite:" + databasePathInternal + "?foreign_keys=true";
-            createTables();
-        } else {
-            String userName = getUsersName();
-            url = "jdbc:sqlite:" + databasePathExternal.replace("userName", userName) + "?foreign_keys=true";
+        private SharedDatabase(ConnectionManager connections, ReviewWriteBuffer.BatchWriter writer) {
+            this.connections = connections;
+            writeBuffer = new ReviewWriteBuffer(writer);
         }
     }
 
+    // First session: opens the shared database
+    private DaoSQLite() { this(databaseUrl()); }
+
+    /**
+     * First session on a database other than the app's (for tests and tools)
+     * @param url JDBC URL of the database (it is brought up to the latest schema when opened)
+     */
+    DaoSQLite(String url) {
+        decks = new DeckCache();
+        connections = new ConnectionManager(url);
+        // Batch writes and compaction use only shared state, so any session can perform them
+        shared = new SharedDatabase(connections, this::writeBatch);
+        writeBuffer = shared.writeBuffer;
+        writeBuffer.scheduleMaintenance(this::compactReviewLog, COMPACT_INTERVAL_MINUTES);
+    }
+
+    // Further session on an open shared database
+    private DaoSQLite(SharedDatabase shared) {
+        decks = new DeckCache();
+        this.shared = shared;
+        connections = shared.connections;
+        writeBuffer = shared.writeBuffer;
+    }
+
+    // Set URL based on whether running inside a JAR or not (a JAR's database is created on first run)
+    private static String databaseUrl() {
+        if (!isRunningInJar()) return "jdbc:sqlite:" + databasePathInternal;
+        Path database = DatabaseBootstrap.databasePath();
+        DatabaseBootstrap.bootstrap(database);
+        return "jdbc:sqlite:" + database;
+    }
+
     // Determine if running inside a JAR
-    private boolean isRunningInJar() {
+    private static boolean isRunningInJar() {
         boolean result = false;
         try {
-            CodeSource codeSource = getClass().getProtectionDomain().getCodeSource();
+            CodeSource codeSource = DaoSQLite.class.getProtectionDomain().getCodeSource();
             if (codeSource != null) {
                 URL location = codeSource.getLocation();
                 result = location.toExternalForm().contains(".jar");
@@ -58,7 +201,7 @@ public class DaoSQLite implements Dao {
     }
 
     /**
-     * Get single instance of DaoSQLite class
+     * Get the app's session (the one the UI controllers share)
      * @return DaoSQLite instance
      */
     public static synchronized DaoSQLite getDao() {
@@ -67,7 +210,25 @@ public class DaoSQLite implements Dao {
     }
 
     /**
-     * Clear all decks from decks {@code Map<String, Deck>}
+     * Open another session on the app's database (for another user, or a background service)
+     * Sessions share the connection and the review write buffer but not their user or loaded decks,
+     * so they can be used from different threads. End the session with logout().
+     * @return new DaoSQLite session (no user signed in)
+     */
+    public static DaoSQLite openSession() { return new DaoSQLite(getDao().shared); }
+
+    /**
+     * End the session: write its queued reviews and release its user and loaded decks
+     */
+    @Override
+    public void logout() {
+        flushBuffer();
+        user = null;
+        decks.clear();
+    }
+
+    /**
+     * Clear all decks from the loaded decks cache
      */
     @Override
     public void clearDecks() {
@@ -76,70 +237,190 @@ public class DaoSQLite implements Dao {
 
     /**
      * Copy JAR-internal database to location on disk to enable read-write access
+     * (done when the first session opens; this recreates the database if it has since been removed)
      */
     public void copyDatabase() {
         if (isRunningInJar()) {
-            String userName = getUsersName();
-            Path destination = Paths.get(databasePathExternal.replace("userName", userName));
-            if (!Files.exists(destination)) {
-                try (InputStream inputStream = getClass().getResourceAsStream(databasePathJAR);
-                     FileOutputStream outputStream = new FileOutputStream(destination.toString())) {
-                    byte[] buffer = new byte[4096]; // Or a suitable buffer size
-                    int bytesRead;
-                    while ((bytesRead = inputStream.read(buffer)) != -1) {
-                        outputStream.write(buffer, 0, bytesRead);
+            Path destination = DatabaseBootstrap.databasePath();
+            if (DatabaseBootstrap.bootstrap(destination)) connections.setUrl("jdbc:sqlite:" + destination);
+        }
+    }
+
+    /**
+     * Open the database and prepare the queries of sign-in and the decks UI ahead of first use
+     * (preparing the first statement opens the connection, which brings the schema up to date)
+     */
+    @Override
+    public void warmUp() {
+        copyDatabase();
+        synchronized (shared) {
+            try {
+                connections.prepare(SELECT_USER);
+                connections.prepare(SELECT_DECK_SUMMARIES);
+            } catch (SQLException e) {
+                recover(e);
+            }
+        }
+    }
+
+    /**
+     * Write queued card updates and close the database connection (called on app exit; ends every session)
+     */
+    @Override
+    public void close() {
+        writeBuffer.close();
+        closeConnection();
+    }
+
+    // Close the shared connection (reporting statement cache use in verbose mode)
+    private void closeConnection() {
+        synchronized (shared) {
+            if (verbose) {
+                System.out.println("Statement cache: " + getStatementCacheHits() + " hits, " +
+                        getStatementCacheMisses() + " misses");
+            }
+            connections.close();
+        }
+    }
+
+    /**
+     * Get number of DAO statements served from the prepared-statement cache this session
+     * @return statement cache hits
+     */
+    public long getStatementCacheHits() { return connections.getStatementHits(); }
+
+    /**
+     * Get number of DAO statements that had to be parsed this session
+     * @return statement cache misses
+     */
+    public long getStatementCacheMisses() { return connections.getStatementMisses(); }
+
+    /**
+     * Run work as a unit of work: the Dao calls it makes join one database transaction, committed once
+     * at the end. If a call fails or the work throws, the database changes and the Deck/Card model changes
+     * made by Dao calls are rolled back (cards passed to updateCard/updateCards are reset to their stored
+     * state). An unchecked exception thrown by the work is rethrown once the unit has been rolled back.
+     * Units nest: an inner unit is a savepoint, and its failure rolls back only the inner unit. Buffered
+     * reviews (queueCardUpdate, queueReview) are not part of the unit.
+     * @param work Dao calls to group (made on the calling thread)
+     * @return true if the unit was committed (or, for an inner unit, kept), false if a database error
+     * rolled it back
+     */
+    @Override
+    public boolean inTransaction(Runnable work) {
+        // Write buffered reviews first: they are written outside the unit
+        flushBuffer();
+        return runUnit(work);
+    }
+
+    private boolean runUnit(Runnable work) {
+        synchronized (shared) {
+            boolean outermost = shared.unitDepth == 0;
+            boolean outerRollbackOnly = shared.rollbackOnly;
+            int undoMark = shared.undoLog.size();
+            Connection connection;
+            Savepoint savepoint = null;
+            try {
+                connection = connections.getConnection();
+                if (outermost) {
+                    connection.setAutoCommit(false);
+                } else {
+                    savepoint = connection.setSavepoint();
+                }
+            } catch (SQLException e) {
+                recover(e);
+                return false;
+            }
+            if (outermost) shared.unitOwner = Thread.currentThread();
+            shared.unitDepth++;
+            shared.rollbackOnly = false;
+            boolean committed = false;
+            try {
+                work.run();
+                if (!shared.rollbackOnly) {
+                    if (outermost) {
+                        connection.commit();
+                    } else {
+                        connection.releaseSavepoint(savepoint);
                     }
-                } catch (IOException | NullPointerException e) {
-                    throw new RuntimeException(e);
+                    committed = true;
                 }
-                url = "jdbc:sqlite:" + destination + "?foreign_keys=true";
+            } catch (SQLException e) {
+                connections.recover(e);
+            } finally {
+                // Also reached when the work throws: the unit is rolled back, then the exception propagates
+                shared.unitDepth--;
+                shared.rollbackOnly = outerRollbackOnly;
+                if (!committed) rollbackUnit(connection, savepoint, undoMark);
+                if (outermost) endUnit(connection);
             }
+            return committed;
         }
     }
 
-    // MacOS-specific: find the user's macOS account name (to find where to copy the JAR-internal database there)
-    private String getUsersName() {
-        String userName = null;
+    // Undo a unit's database changes, then its model changes (newest first)
+    private void rollbackUnit(Connection connection, Savepoint savepoint, int undoMark) {
         try {
-            // Get specific user's name (macOS only)
-            ProcessBuilder processBuilder = new ProcessBuilder("whoami");
-            Process process = processBuilder.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            userName = reader.readLine();
-        } catch (IOException e) {
-            System.out.println(e.getMessage());
+            if (savepoint == null) {
+                connection.rollback();
+            } else {
+                connection.rollback(savepoint);
+                connection.releaseSavepoint(savepoint);
+            }
+        } catch (SQLException e) {
+            connections.recover(e);
         }
-        return userName;
-    }
-
-    // Create the tables: users, decks, cards
-    private void createTables() {
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            // Create users table
-            stmt.execute("CREATE TABLE IF NOT EXISTS " + usersTable +
-                    " (user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                    "userName VARCHAR(20) UNIQUE, password VARCHAR(20), " +
-                    " securityAnswer VARCHAR(20));");
-
-            // Create decks table
-            stmt.execute("CREATE TABLE IF NOT EXISTS " + decksTable +
-                    " (deck_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                    "name VARCHAR(40), user_id INTEGER, " +
-                    "FOREIGN KEY (user_id) REFERENCES " + usersTable + " (user_id) " +
-                    "ON DELETE CASCADE);");
-
-            // Create cards table
-            stmt.execute("CREATE TABLE IF NOT EXISTS " + cardsTable +
-                    " (card_id INTEGER PRIMARY KEY, " +
-                    "front TEXT, back TEXT, leitner_box INTEGER, leitner_target INTEGER, " +
-                    "creation_date TEXT, reviewed_date TEXT, " +
-                    "due_date TEXT, deck_id INTEGER, " +
-                    "number_reviews INTEGER, number_passes INTEGER, " +
-                    "FOREIGN KEY (deck_id) REFERENCES " + decksTable + " (deck_id) " +
-                    "ON DELETE CASCADE);");
+        while (shared.undoLog.size() > undoMark) shared.undoLog.pop().run();
+    }
+
+    // Return the connection to auto-commit once the outermost unit is over
+    private void endUnit(Connection connection) {
+        shared.undoLog.clear();
+        shared.unitOwner = null;
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            connections.recover(e);
+        }
+    }
+
+    // Record how to undo a model change if it is made inside a unit of work
+    private void journal(Runnable undo) {
+        if (shared.unitDepth > 0) shared.undoLog.push(undo);
+    }
+
+    // Report a database error; inside a unit of work the error also dooms the unit
+    private void recover(SQLException e) {
+        connections.recover(e);
+        if (shared.unitDepth > 0) shared.rollbackOnly = true;
+    }
+
+    // Write buffered reviews, except inside a unit of work: the unit holds the shared lock, which a
+    // flush in progress on the writer thread may be waiting for
+    private void flushBuffer() {
+        if (shared.unitOwner != Thread.currentThread()) writeBuffer.flush();
+    }
+
+    // Reset a card's fields to its stored row (after a rollback discarded what the unit wrote)
+    private void refreshCard(Card card) {
+        try {
+            PreparedStatement stmt = connections.prepare(SELECT_CARD);
+            stmt.setInt(1, card.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Card stored = readCard(rs);
+                    card.setFront(stored.getFront());
+                    card.setBack(stored.getBack());
+                    card.setLeitnerBox(stored.getLeitnerBox());
+                    card.setLeitnerTarget(stored.getLeitnerTarget());
+                    card.setReviewedDay(stored.getReviewedDay());
+                    card.setDueDay(stored.getDueDay());
+                    card.setNumberOfReviews(stored.getNumberOfReviews());
+                    card.setNumberOfPasses(stored.getNumberOfPasses());
+                }
+            }
         } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+            connections.recover(e);
         }
     }
 
@@ -151,15 +432,17 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public void addUser(String userName, String password, String securityAnswer) {
-        user = new User(userName, password, securityAnswer);
-        String command = "INSERT INTO " + usersTable + " (userName, password, securityAnswer) VALUES ('" +
-                userName + "', '" + password + "', '" + securityAnswer + "');";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+        synchronized (shared) {
+            user = new User(userName, password, securityAnswer);
+            try {
+                PreparedStatement stmt = connections.prepare(INSERT_USER);
+                stmt.setString(1, userName);
+                stmt.setString(2, password);
+                stmt.setString(3, securityAnswer);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
 
@@ -170,22 +453,24 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public User getUser(String userName) {
-        user = null;
-        String command = "SELECT * FROM " + usersTable + " WHERE userName = '" + userName + "';";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery(command);
-            while (rs.next()) {
-                userName = rs.getString("username");
-                String password = rs.getString("password");
-                String securityAnswer = rs.getString("securityAnswer");
-                user = new User(userName, password, securityAnswer);
+        synchronized (shared) {
+            user = null;
+            try {
+                PreparedStatement stmt = connections.prepare(SELECT_USER);
+                stmt.setString(1, userName);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        userName = rs.getString("username");
+                        String password = rs.getString("password");
+                        String securityAnswer = rs.getString("securityAnswer");
+                        user = new User(userName, password, securityAnswer);
+                    }
+                }
+            } catch (SQLException e) {
+                recover(e);
             }
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+            return user;
         }
-        return user;
     }
 
     /**
@@ -202,14 +487,15 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public void changeUserPassword(String userName, String password) {
-        String command = "UPDATE " + usersTable + " SET password = " + "'" + password + "'" +
-                " WHERE username = '" + userName + "';";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+        synchronized (shared) {
+            try {
+                PreparedStatement stmt = connections.prepare(UPDATE_PASSWORD);
+                stmt.setString(1, password);
+                stmt.setString(2, userName);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
 
@@ -219,35 +505,41 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public void deleteUser(String userName) {
-        String command = "DELETE FROM " + usersTable + " WHERE username = " + "'" + userName + "';";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+        synchronized (shared) {
+            try {
+                PreparedStatement stmt = connections.prepare(DELETE_USER);
+                stmt.setString(1, userName);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
 
     /**
-     * Add deck
+     * Add deck (unless the user has a deck of that name)
      * @param deck Deck instance
+     * @return true if the deck was added
      */
     @Override
-    public void addDeck(Deck deck) {
-        // Update model
-        String deckName = deck.getName();
-        decks.put(deckName, deck);
-        // Update database
-        String userName = user.getUsername();
-        String command =  "INSERT INTO decks (name, user_id) VALUES (" + "'" + deckName + "'," +
-                "(SELECT user_id FROM users WHERE username = " +  "'" + userName + "'));";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+    public boolean addDeck(Deck deck) {
+        synchronized (shared) {
+            String deckName = deck.getName();
+            // Update database
+            try {
+                PreparedStatement stmt = connections.prepare(INSERT_DECK);
+                stmt.setString(1, deckName);
+                stmt.setString(2, user.getUsername());
+                stmt.setString(3, deckName);
+                if (stmt.executeUpdate() == 0) return false;
+            } catch (SQLException e) {
+                recover(e);
+                return false;
+            }
+            // Update model only once the deck is stored
+            decks.put(deck);
+            journal(() -> decks.remove(deckName));
+            return true;
         }
     }
 
@@ -256,65 +548,241 @@ public class DaoSQLite implements Dao {
      * @return map of decks
      */
     @Override
-    public Map<String, Deck> getDecks() {
-        // Get all user's decks from database
-        String userName = user.getUsername();
-        String command = "SELECT * FROM decks d " +
-                "JOIN users u on d.user_id = u.user_id " +
-                "WHERE username = '" + userName + "';";
+    public Map<String, Deck> getDecks() { return getDecks(true); }
 
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery(command);
-            // Instantiate a deck for each database deck
-            while (rs.next()) {
-                String deckName = rs.getString("name");
-                Deck deck = new Deck(deckName);
-                decks.put(deckName, deck);
-            }
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
-        }
-
-        // Get all cards for each user's deck
-        for (Deck deck : decks.values()) {
-            command = "SELECT * FROM cards c " +
-                    "JOIN decks d ON d.deck_id = c.deck_id " +
-                    "JOIN users u ON u.user_id = d.user_id " +
-                    "WHERE u.username = '" + userName + "' AND d.name = '" + deck.getName() + "';";
-
-            try (Connection connection = DriverManager.getConnection(url);
-                 Statement stmt = connection.createStatement()) {
-                ResultSet rs = stmt.executeQuery(command);
-                while(rs.next()) {
-                    int cardId = rs.getInt("card_id");
-                    String front = rs.getString("front");
-                    String back = rs.getString("back");
-                    int leitnerBox = rs.getInt("leitner_box");
-                    int leitnerTarget = rs.getInt("leitner_target");
-                    String creationDate = rs.getString("creation_date");
-                    String reviewedDate = rs.getString("reviewed_date");
-                    String dueDate = rs.getString("due_date");
-                    int numberOfReviews = rs.getInt("number_reviews");
-                    int numberOfPasses = rs.getInt("number_passes");
-                    Card card = new Card(cardId, front, back, creationDate, reviewedDate, dueDate, leitnerBox,
-                            leitnerTarget, numberOfReviews, numberOfPasses);
-                    deck.addCard(cardId, card);
+    /**
+     * Get all user's decks, optionally with their cards
+     * Decks and cards are loaded by a single query, ordered by deck, and the model is built as rows arrive.
+     * @param withCards true to load each deck's cards, false to load the decks only (with no cards)
+     * @return map of decks
+     */
+    @Override
+    public Map<String, Deck> getDecks(boolean withCards) {
+        // Write buffered reviews first so the loaded cards reflect them
+        flushBuffer();
+        return loadDecks(withCards);
+    }
+
+    private Map<String, Deck> loadDecks(boolean withCards) {
+        synchronized (shared) {
+            Map<String, Deck> loaded = new LinkedHashMap<>();
+            try {
+                PreparedStatement stmt = connections.prepare(withCards ? SELECT_DECKS_WITH_CARDS : SELECT_DECKS);
+                stmt.setString(1, user.getUsername());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Instantiate a deck for each database deck, then add each of its card rows to it
+                    int currentDeckId = -1;
+                    Deck deck = null;
+                    while (rs.next()) {
+                        int deckId = rs.getInt("deck_id");
+                        if (deck == null || deckId != currentDeckId) {
+                            currentDeckId = deckId;
+                            String deckName = rs.getString("name");
+                            deck = new Deck(deckName);
+                            loaded.put(deckName, deck);
+                        }
+                        // Decks without cards have a single row with NULL card columns
+                        if (withCards && rs.getObject("card_id") != null) {
+                            Card card = readCard(rs);
+                            deck.addCard(card.getId(), card);
+                        }
+                    }
                 }
             } catch (SQLException e) {
-                System.out.println("Database error: " + e.getMessage());
+                recover(e);
             }
+            if (withCards) loaded.values().forEach(decks::put);
+            return loaded;
         }
-        return decks;
+    }
+
+    // Instantiate a card from the current row of a cards query
+    private Card readCard(ResultSet rs) throws SQLException {
+        int cardId = rs.getInt("card_id");
+        String front = rs.getString("front");
+        String back = rs.getString("back");
+        int leitnerBox = rs.getInt("leitner_box");
+        int leitnerTarget = rs.getInt("leitner_target");
+        int creationDay = rs.getInt("creation_date");
+        int reviewedDay = rs.getInt("reviewed_date");
+        int dueDay = rs.getInt("due_date");
+        int numberOfReviews = rs.getInt("number_reviews");
+        int numberOfPasses = rs.getInt("number_passes");
+        return new Card(cardId, front, back, creationDay, reviewedDay, dueDay, leitnerBox,
+                leitnerTarget, numberOfReviews, numberOfPasses);
     }
 
     /**
-     * Get deck
+     * Get deck with its cards, loading the cards if the deck is not cached
      * @param deckName deck name
-     * @return Deck instance
+     * @return Deck instance (null if the user has no such deck)
+     */
+    @Override
+    public Deck getDeck(String deckName) {
+        Deck deck = cachedDeck(deckName);
+        if (deck == null) {
+            // Write buffered reviews first so the loaded cards reflect them
+            flushBuffer();
+            deck = loadDeck(deckName);
+        }
+        return deck;
+    }
+
+    private Deck cachedDeck(String deckName) { return decks.get(deckName); }
+
+    // Load a deck's cards and cache the deck (a very large deck into columnar storage)
+    private Deck loadDeck(String deckName) {
+        synchronized (shared) {
+            Deck deck = decks.get(deckName);
+            if (deck != null) return deck;
+            try {
+                int deckId = getDeckId(deckName);
+                int cardCount = countCards(deckName);
+                deck = cardCount >= columnarDeckCards ? Deck.columnar(deckName, cardCount) : new Deck(deckName);
+                PreparedStatement stmt = connections.prepare(SELECT_DECK_CARDS);
+                stmt.setInt(1, deckId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Card card = readCard(rs);
+                        deck.addCard(card.getId(), card);
+                    }
+                }
+                decks.put(deck);
+            } catch (SQLException e) {
+                recover(e);
+                deck = null;
+            }
+            return deck;
+        }
+    }
+
+    /**
+     * Get the cards of a deck that are due on or before a date, without loading the rest of the deck
+     * If the deck's cards are loaded, the returned cards are the deck's own Card instances.
+     * @param deck Deck instance (its cards need not be loaded)
+     * @param dueDay due date cut-off as an epoch day (usually today)
+     * @param limit maximum number of cards returned (oldest due first)
+     * @return due Card instances
+     */
+    @Override
+    public List<Card> getDueCards(Deck deck, int dueDay, int limit) {
+        // Write buffered reviews first so the due dates reflect them
+        flushBuffer();
+        return loadDueCards(deck, dueDay, limit);
+    }
+
+    private List<Card> loadDueCards(Deck deck, int dueDay, int limit) {
+        synchronized (shared) {
+            // A loaded deck selects its own due cards, so the drill and the rest of the model share each card
+            Deck loaded = decks.get(deck.getName());
+            if (loaded != null) return loaded.getDueCards(dueDay, limit);
+            List<Card> due = new ArrayList<>();
+            try {
+                PreparedStatement stmt = connections.prepare(SELECT_DUE_CARDS);
+                stmt.setInt(1, getDeckId(deck.getName()));
+                stmt.setInt(2, dueDay);
+                stmt.setInt(3, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) due.add(readCard(rs));
+                }
+            } catch (SQLException e) {
+                recover(e);
+            }
+            return due;
+        }
+    }
+
+    /**
+     * Search card fronts and backs (full-text, ignoring case and Latin accents)
+     * Each word of the query must occur in the card; the last word also matches as a prefix, so results
+     * can follow the user's typing. Cards of loaded decks are returned as the decks' own Card instances.
+     * @param query words to search for (plain text, not FTS syntax)
+     * @param deckName deck to search, or null to search all of the user's decks
+     * @param limit maximum number of cards returned
+     * @return matching Card instances, best match first (empty for a blank query)
+     */
+    @Override
+    public List<Card> searchCards(String query, String deckName, int limit) {
+        synchronized (shared) {
+            List<Card> matches = new ArrayList<>();
+            String match = matchExpression(query);
+            if (match == null) return matches;
+            Deck loaded = deckName == null ? null : decks.get(deckName);
+            try {
+                PreparedStatement stmt;
+                if (deckName != null) {
+                    stmt = connections.prepare(SEARCH_DECK_CARDS);
+                    stmt.setString(1, match);
+                    stmt.setInt(2, getDeckId(deckName));
+                } else {
+                    stmt = connections.prepare(SEARCH_USER_CARDS);
+                    stmt.setString(1, match);
+                    stmt.setString(2, user.getUsername());
+                }
+                stmt.setInt(3, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Card card = loaded == null ? null : loaded.getCard(rs.getInt("card_id"));
+                        matches.add(card != null ? card : readCard(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                recover(e);
+            }
+            return matches;
+        }
+    }
+
+    // Turn typed text into an FTS5 query: every word quoted (so FTS operators in the text are literal),
+    // the last one as a prefix; null if the text has no words
+    private static String matchExpression(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.isEmpty()) continue;
+            if (!match.isEmpty()) match.append(' ');
+            match.append('"').append(word.replace("\"", "\"\"")).append('"');
+        }
+        return match.isEmpty() ? null : match.append('*').toString();
+    }
+
+    /**
+     * Get a summary of each of the user's decks (name, card count, due count, last reviewed date)
+     * computed by one aggregate query, without loading any cards
+     * @return deck summaries in the order the decks were created
      */
     @Override
-    public Deck getDeck(String deckName) { return decks.get(deckName); }
+    public List<DeckSummary> getDeckSummaries() {
+        // Write buffered reviews first so the counts reflect them
+        flushBuffer();
+        return loadDeckSummaries();
+    }
+
+    private List<DeckSummary> loadDeckSummaries() {
+        synchronized (shared) {
+            List<DeckSummary> summaries = new ArrayList<>();
+            try {
+                PreparedStatement stmt = connections.prepare(SELECT_DECK_SUMMARIES);
+                stmt.setInt(1, today());
+                stmt.setString(2, user.getUsername());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int lastReviewed = rs.getInt("last_reviewed");
+                        String lastReviewedDate = rs.wasNull() ? null : LocalDate.ofEpochDay(lastReviewed).toString();
+                        String name = rs.getString("name");
+                        // A loaded deck counts its own cards (its due index is current without a flush)
+                        Deck loaded = decks.peek(name);
+                        summaries.add(loaded != null
+                                ? new DeckSummary(name, loaded.size(), loaded.getDueCount(today()), lastReviewedDate)
+                                : new DeckSummary(name, rs.getInt("card_count"), rs.getInt("due_count"),
+                                lastReviewedDate));
+                    }
+                }
+            } catch (SQLException e) {
+                recover(e);
+            }
+            return summaries;
+        }
+    }
 
     /**
      * Change deck's name
@@ -323,24 +791,29 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public void changeDeckName(String oldName, String newName) {
-        // Update model
-        // decks is a map, its key is the deck's title
-        // so, to change the deck's title, the deck must be replaced
-        Deck oldDeck = decks.remove(oldName);
-        Deck newDeck = new Deck(newName);
-        newDeck.setCards(oldDeck.getCards());
-        decks.put(newName, newDeck);
-        // Update database
-        String userName = user.getUsername();
-        String command = "UPDATE decks SET name = '" + newName + "' " +
-                "WHERE user_id = (SELECT user_id FROM users WHERE username = '" + userName +
-                "') AND name = '" + oldName + "';";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+        synchronized (shared) {
+            // Update model (if the deck is loaded)
+            // decks are keyed by the deck's title
+            // so, to change the deck's title, the deck must be replaced
+            Deck oldDeck = decks.remove(oldName);
+            if (oldDeck != null) {
+                Deck newDeck = oldDeck.renamed(newName);
+                decks.put(newDeck);
+                journal(() -> {
+                    decks.remove(newName);
+                    decks.put(oldDeck);
+                });
+            }
+            // Update database
+            try {
+                PreparedStatement stmt = connections.prepare(UPDATE_DECK_NAME);
+                stmt.setString(1, newName);
+                stmt.setString(2, user.getUsername());
+                stmt.setString(3, oldName);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
 
@@ -350,18 +823,19 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public void deleteDeck(String deckName) {
-        // Update model
-        decks.remove(deckName);
-        // Update database
-        String userName = user.getUsername();
-        String command = "DELETE FROM decks WHERE user_id = (SELECT user_id from users " +
-                "WHERE username = '" + userName + "') AND name = '" + deckName + "';";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+        synchronized (shared) {
+            // Update model
+            Deck removed = decks.remove(deckName);
+            if (removed != null) journal(() -> decks.put(removed));
+            // Update database
+            try {
+                PreparedStatement stmt = connections.prepare(DELETE_DECK);
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, deckName);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
 
@@ -374,52 +848,197 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public Card addCard(String front, String back, Deck deck) {
-        String today = LocalDate.now().toString();
-        int card_id = -1;
-        String userName = user.getUsername();
-        String deckName = deck.getName();
-        String command = "INSERT INTO cards (front, back, leitner_box, leitner_target, creation_date, reviewed_date, due_date, " +
-                "deck_id, number_reviews, number_passes) " +
-                "VALUES ('" + front + "', '" + back + "', 0, 0, '" + today + "', '" + today + "', '" + today + "'," +
-                "(SELECT deck_id FROM decks d JOIN users u ON d.user_id = u.user_id " +
-                "WHERE u.username = '" + userName + "' AND d.name = '" + deckName + "'), " +
-                "0, 0);";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-            ResultSet generatedKeys = stmt.getGeneratedKeys();
-            card_id = generatedKeys.getInt(1);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
-        }
-
-        // Now get the card just added so it can be instanced and added to the data model
-        command = "SELECT * FROM cards WHERE card_id = '" + card_id + "';";
-
-        Card card = null;
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery(command);
-            while(rs.next()) {
-                int cardId = rs.getInt("card_id");
-                front = rs.getString("front");
-                back = rs.getString("back");
-                int leitnerBox = rs.getInt("leitner_box");
-                int leitnerTarget = rs.getInt("leitner_target");
-                String creationDate = rs.getString("creation_date");
-                String reviewedDate = rs.getString("reviewed_date");
-                String dueDate = rs.getString("due_date");
-                int numberOfReviews = rs.getInt("number_reviews");
-                int numberOfPasses = rs.getInt("number_passes");
-                card = new Card(cardId, front, back, creationDate, reviewedDate, dueDate, leitnerBox,
-                        leitnerTarget, numberOfReviews, numberOfPasses);
-                deck.addCard(cardId, card);
+        synchronized (shared) {
+            int today = today();
+            Card card = null;
+            try {
+                // Insert and read back the stored row in one round trip
+                PreparedStatement stmt = connections.prepare(INSERT_CARD);
+                stmt.setString(1, front);
+                stmt.setString(2, back);
+                stmt.setInt(3, today);
+                stmt.setInt(4, today);
+                stmt.setInt(5, today);
+                stmt.setString(6, user.getUsername());
+                stmt.setString(7, deck.getName());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        card = readCard(rs);
+                        deck.addCard(card.getId(), card);
+                        int cardId = card.getId();
+                        journal(() -> deck.deleteCard(cardId));
+                    }
+                }
+            } catch (SQLException e) {
+                recover(e);
             }
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+            return card;
+        }
+    }
+
+    /**
+     * Add many cards to a deck in a single transaction
+     * @param deck associated deck
+     * @param cards front and back text of each card to add
+     * @return Card instances in the order given (empty if the cards could not be added)
+     */
+    @Override
+    public List<Card> addCards(Deck deck, List<Map.Entry<String, String>> cards) {
+        synchronized (shared) {
+            int today = today();
+            List<Card> added = new ArrayList<>(cards.size());
+            try {
+                transaction(() -> {
+                    int deckId = getDeckId(deck.getName());
+                    PreparedStatement stmt = connections.prepare(INSERT_DECK_CARD);
+                    for (Map.Entry<String, String> entry : cards) {
+                        stmt.setString(1, entry.getKey());
+                        stmt.setString(2, entry.getValue());
+                        stmt.setInt(3, today);
+                        stmt.setInt(4, today);
+                        stmt.setInt(5, today);
+                        stmt.setInt(6, deckId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) added.add(readCard(rs));
+                        }
+                    }
+                });
+            } catch (SQLException e) {
+                recover(e);
+                added.clear();
+            }
+            // Update model only once the whole batch is committed
+            for (Card card : added) deck.addCard(card.getId(), card);
+            if (!added.isEmpty()) journal(() -> added.forEach(card -> deck.deleteCard(card.getId())));
+            return added;
+        }
+    }
+
+    /**
+     * Insert many cards into a deck in a single transaction, bypassing the decks model
+     * @param deckName deck name
+     * @param cards front and back text of each card to insert
+     * @return number of cards inserted (0 if the cards could not be inserted)
+     */
+    @Override
+    public int importCards(String deckName, List<Map.Entry<String, String>> cards) {
+        synchronized (shared) {
+            int today = today();
+            int[] inserted = {0};
+            try {
+                transaction(() -> {
+                    PreparedStatement stmt = connections.prepare(IMPORT_DECK_CARD);
+                    int deckId = getDeckId(deckName);
+                    for (Map.Entry<String, String> entry : cards) {
+                        stmt.setString(1, entry.getKey());
+                        stmt.setString(2, entry.getValue());
+                        stmt.setInt(3, today);
+                        stmt.setInt(4, today);
+                        stmt.setInt(5, today);
+                        stmt.setInt(6, deckId);
+                        inserted[0] += stmt.executeUpdate();
+                    }
+                });
+            } catch (SQLException e) {
+                recover(e);
+                return 0;
+            }
+            // A loaded copy of the deck lacks the new cards: drop it so the next open reloads the deck
+            Deck stale = decks.remove(deckName);
+            if (stale != null) journal(() -> decks.put(stale));
+            return inserted[0];
+        }
+    }
+
+    /**
+     * Count cards in the database
+     * @param deckName deck name, or null for all of the user's decks
+     * @return number of cards
+     */
+    @Override
+    public int countCards(String deckName) {
+        synchronized (shared) {
+            int count = 0;
+            try {
+                PreparedStatement stmt;
+                if (deckName == null) {
+                    stmt = connections.prepare(COUNT_USER_CARDS);
+                    stmt.setString(1, user.getUsername());
+                } else {
+                    stmt = connections.prepare(COUNT_DECK_CARDS);
+                    stmt.setInt(1, getDeckId(deckName));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) count = rs.getInt(1);
+                }
+            } catch (SQLException e) {
+                recover(e);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Stream cards straight from the database, bypassing the decks model
+     * Cards are read in chunks ordered by ID; only one chunk is held in memory at a time, and the
+     * connection is released between chunks. The action may throw an unchecked exception to stop early.
+     * @param deckName deck name, or null for all of the user's decks
+     * @param action called with each card's deck name and a transient Card instance
+     * @throws DaoException if the cards cannot be read (including when there is no such deck)
+     */
+    @Override
+    public void forEachCard(String deckName, BiConsumer<String, Card> action) {
+        // Write buffered reviews first so the streamed cards reflect them
+        flushBuffer();
+        List<String> names = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        List<Card> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        int lastId = -1;
+        do {
+            names.clear();
+            chunk.clear();
+            readCardChunk(deckName, lastId, names, chunk);
+            for (int i = 0; i < chunk.size(); i++) action.accept(names.get(i), chunk.get(i));
+            if (!chunk.isEmpty()) lastId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+    }
+
+    // Read the next chunk of cards with IDs above lastId
+    private void readCardChunk(String deckName, int lastId, List<String> names, List<Card> chunk) {
+        synchronized (shared) {
+            try {
+                PreparedStatement stmt;
+                if (deckName == null) {
+                    stmt = connections.prepare(SELECT_USER_CARD_CHUNK);
+                    stmt.setString(1, user.getUsername());
+                } else {
+                    stmt = connections.prepare(SELECT_DECK_CARD_CHUNK);
+                    stmt.setInt(1, getDeckId(deckName));
+                }
+                stmt.setInt(2, lastId);
+                stmt.setInt(3, EXPORT_CHUNK_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        names.add(rs.getString("name"));
+                        chunk.add(readCard(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                recover(e);
+                // Stop the stream: an empty chunk would pass for the end of the cards
+                throw new DaoException("reading cards failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // Look up a deck's database ID from its owner and name
+    private int getDeckId(String deckName) throws SQLException {
+        PreparedStatement stmt = connections.prepare(SELECT_DECK_ID);
+        stmt.setString(1, user.getUsername());
+        stmt.setString(2, deckName);
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) throw new SQLException("no deck named " + deckName);
+            return rs.getInt("deck_id");
         }
-        return card;
     }
 
     /**
@@ -428,48 +1047,242 @@ public class DaoSQLite implements Dao {
      */
     @Override
     public void updateCard(Card card) {
-        int card_id = card.getId();
-        String front = card.getFront();
-        String back = card.getBack();
-        int leitner_box = card.getLeitnerBox();
-        int leitner_target = card.getLeitnerTarget();
-        String reviewed_date = card.getReviewedDate();
-        String due_date = card.getDueDate();
-        int number_reviews = card.getNumberOfReviews();
-        int number_passes = card.getNumberOfPasses();
-
-        String command = "UPDATE cards SET " +
-                "front = " + "'" + front + "', " +
-                "back = " + "'" + back + "', " +
-                "leitner_box = " + "'" + leitner_box + "', " +
-                "leitner_target = " + "'" + leitner_target + "', " +
-                "reviewed_date = " + "'" + reviewed_date + "', " +
-                "due_date = " + "'" + due_date + "', " +
-                "number_reviews = " + "'" + number_reviews + "', " +
-                "number_passes = " + "'" + number_passes + "' " +
-                "WHERE card_id = '" + card_id + "';";
-
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+        // Write buffered reviews first so an older buffered state cannot overwrite this one
+        flushBuffer();
+        writeCard(card);
+    }
+
+    private void writeCard(Card card) {
+        synchronized (shared) {
+            journal(() -> refreshCard(card));
+            try {
+                PreparedStatement stmt = connections.prepare(UPDATE_CARD);
+                bindCardUpdate(stmt, card);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
 
     /**
-     * Delete card
+     * Write several cards' current state in a single transaction
+     * @param cards Card instances
+     */
+    @Override
+    public void updateCards(Collection<Card> cards) {
+        flushBuffer();
+        writeCardsNow(cards);
+    }
+
+    private void writeCardsNow(Collection<Card> cards) {
+        synchronized (shared) {
+            List<Card> written = List.copyOf(cards);
+            journal(() -> written.forEach(this::refreshCard));
+            try {
+                writeCards(cards);
+            } catch (SQLException e) {
+                recover(e);
+            }
+        }
+    }
+
+    // Write cards in one transaction (rolled back as a whole if any update fails)
+    private void writeCards(Collection<Card> cards) throws SQLException { writeBatch(cards, List.of()); }
+
+    // Write cards and append review log entries in one transaction (rolled back as a whole if any fails)
+    private void writeBatch(Collection<Card> cards, List<Review> reviews) throws SQLException {
+        synchronized (shared) {
+            transaction(() -> {
+                if (!cards.isEmpty()) {
+                    PreparedStatement stmt = connections.prepare(UPDATE_CARD);
+                    for (Card card : cards) {
+                        bindCardUpdate(stmt, card);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                if (!reviews.isEmpty()) {
+                    PreparedStatement stmt = connections.prepare(INSERT_REVIEW);
+                    for (Review review : reviews) {
+                        stmt.setInt(1, review.getReviewDay());
+                        stmt.setLong(2, review.getReviewedAt());
+                        stmt.setBoolean(3, review.isPassed());
+                        stmt.setInt(4, review.getBoxBefore());
+                        stmt.setInt(5, review.getBoxAfter());
+                        stmt.setInt(6, review.getCardId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            });
+        }
+    }
+
+    // Database work that may throw SQLException
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    // Run work in a single transaction on the shared connection (rolled back as a whole if it fails)
+    // Inside a unit of work it runs under a savepoint instead and is committed with the unit
+    private void transaction(SqlWork work) throws SQLException {
+        synchronized (shared) {
+            Connection connection = connections.getConnection();
+            if (shared.unitDepth > 0) {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    work.run();
+                } catch (SQLException e) {
+                    connection.rollback(savepoint);
+                    throw e;
+                } finally {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return;
+            }
+            connection.setAutoCommit(false);
+            try {
+                work.run();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Today's date as an epoch day, the form card dates are stored in
+    private static int today() { return (int) LocalDate.now().toEpochDay(); }
+
+    // Bind a card's mutable columns to UPDATE_CARD
+    private void bindCardUpdate(PreparedStatement stmt, Card card) throws SQLException {
+        stmt.setString(1, card.getFront());
+        stmt.setString(2, card.getBack());
+        stmt.setInt(3, card.getLeitnerBox());
+        stmt.setInt(4, card.getLeitnerTarget());
+        stmt.setInt(5, card.getReviewedDay());
+        stmt.setInt(6, card.getDueDay());
+        stmt.setInt(7, card.getNumberOfReviews());
+        stmt.setInt(8, card.getNumberOfPasses());
+        stmt.setInt(9, card.getId());
+    }
+
+    /**
+     * Queue a reviewed card to be written in a later batch (returns without waiting on the database)
+     * @param card reviewed Card instance
+     */
+    @Override
+    public void queueCardUpdate(Card card) { writeBuffer.add(card); }
+
+    /**
+     * Queue a reviewed card together with the review's log entry (returns without waiting on the database)
+     * @param card reviewed Card instance
+     * @param review Pass or Fail given to the card
+     */
+    @Override
+    public void queueReview(Card card, Review review) { writeBuffer.add(card, review); }
+
+    /**
+     * Get a deck's daily review totals from a date onward, read from the daily aggregate (not the raw log)
+     * @param deckName deck name
+     * @param fromDay first date included (epoch day)
+     * @return totals per day that had reviews, oldest first
+     */
+    @Override
+    public List<ReviewDay> getReviewHistory(String deckName, int fromDay) {
+        // Write buffered reviews first so the totals include them
+        flushBuffer();
+        return loadReviewHistory(deckName, fromDay);
+    }
+
+    private List<ReviewDay> loadReviewHistory(String deckName, int fromDay) {
+        synchronized (shared) {
+            List<ReviewDay> history = new ArrayList<>();
+            try {
+                PreparedStatement stmt = connections.prepare(SELECT_REVIEW_HISTORY);
+                stmt.setInt(1, getDeckId(deckName));
+                stmt.setInt(2, fromDay);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        history.add(new ReviewDay(rs.getInt("day"), rs.getInt("reviews"), rs.getInt("passes")));
+                    }
+                }
+            } catch (SQLException e) {
+                recover(e);
+            }
+            return history;
+        }
+    }
+
+    // Delete review log entries older than REVIEW_LOG_RETAIN_DAYS (their days are already in review_daily)
+    // Runs periodically on the review writer thread
+    private void compactReviewLog() {
+        int cutOff = today() - REVIEW_LOG_RETAIN_DAYS;
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = deleteReviewChunk(cutOff);
+            deleted += chunk;
+        } while (chunk == COMPACT_CHUNK_SIZE);
+        if (verbose && deleted > 0) System.out.println("Review log compacted: " + deleted + " entries rolled up");
+    }
+
+    // Delete one chunk of old review log entries (the DAO is free for other work between chunks)
+    private int deleteReviewChunk(int cutOff) {
+        synchronized (shared) {
+            try {
+                PreparedStatement stmt = connections.prepare(COMPACT_REVIEW_LOG);
+                stmt.setInt(1, cutOff);
+                stmt.setInt(2, COMPACT_CHUNK_SIZE);
+                return stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Ask for queued card updates to be written now, in the background
+     */
+    @Override
+    public void flushCardUpdates() { writeBuffer.flushAsync(); }
+
+    /**
+     * Delete card from the database and from its deck
      * @param cardId card's ID
+     * @param deck deck holding the card
      */
     @Override
-    public void deleteCard(int cardId) {
-        String command = "DELETE FROM cards WHERE card_id = '" + cardId + "';";
+    public void deleteCard(int cardId, Deck deck) {
+        synchronized (shared) {
+            Card card = deck.getCard(cardId);
+            if (card != null) {
+                deck.deleteCard(cardId);
+                journal(() -> deck.addCard(cardId, card));
+            }
+            deleteCard(cardId);
+        }
+    }
 
-        try (Connection connection = DriverManager.getConnection(url);
-             Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(command);
-        } catch (SQLException e) {
-            System.out.println("Database error: " + e.getMessage());
+    /**
+     * Delete card (from the database only)
+     * @param cardId card's ID
+     */
+    @Override
+    public void deleteCard(int cardId) {
+        synchronized (shared) {
+            try {
+                PreparedStatement stmt = connections.prepare(DELETE_CARD);
+                stmt.setInt(1, cardId);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                recover(e);
+            }
         }
     }
-}
\ No newline at end of file
+}
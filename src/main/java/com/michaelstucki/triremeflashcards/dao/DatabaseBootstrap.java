@@ -0,0 +1,113 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+import static com.michaelstucki.triremeflashcards.constants.Constants.*;
+
+/**
+ * Finds and, on first run, creates the read-write database used when the app runs from a JAR
+ * The database lives in the user's data directory, resolved from system properties and environment
+ * variables (no external processes):
+ * <ul>
+ * <li>~/.flashcards.db if it exists (where earlier versions kept it)</li>
+ * <li>$XDG_DATA_HOME/trireme-flashcards/flashcards.db when XDG_DATA_HOME is set</li>
+ * <li>~/.flashcards.db on macOS</li>
+ * <li>~/.local/share/trireme-flashcards/flashcards.db otherwise</li>
+ * </ul>
+ * A new database is copied from the JAR's bundled database (or, if that is missing, built from the
+ * schema migrations) into a temporary file beside the destination, checked, and then renamed into
+ * place, so a crash or a second instance never leaves a partial database behind.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class DatabaseBootstrap {
+    private DatabaseBootstrap() {}
+
+    /**
+     * Resolve where the read-write database lives
+     * @return database file path (it may not exist yet)
+     */
+    static Path databasePath() {
+        Path home = Paths.get(System.getProperty("user.home"));
+        Path legacy = home.resolve(databaseFileLegacy);
+        if (Files.exists(legacy)) return legacy;
+        String xdgDataHome = System.getenv("XDG_DATA_HOME");
+        if (xdgDataHome != null && !xdgDataHome.isBlank()) {
+            return Paths.get(xdgDataHome).resolve(dataDirectoryName).resolve(databaseFileName);
+        }
+        if (System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("mac")) return legacy;
+        return home.resolve(".local").resolve("share").resolve(dataDirectoryName).resolve(databaseFileName);
+    }
+
+    /**
+     * Make sure the database exists, creating it on first run
+     * @param destination database file path
+     * @return true if the database was created, false if it already existed
+     * @throws UncheckedIOException if the database cannot be created
+     */
+    static boolean bootstrap(Path destination) {
+        if (Files.exists(destination)) return false;
+        Path temporary = null;
+        try {
+            Path directory = destination.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, ".flashcards", ".tmp");
+            try (InputStream bundled = DatabaseBootstrap.class.getResourceAsStream(databasePathJAR)) {
+                // A single stream-to-file copy; without a bundled database the empty file gets the schema below
+                if (bundled != null) Files.copy(bundled, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            verify(temporary);
+            try {
+                Files.move(temporary, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                try {
+                    Files.move(temporary, destination);
+                } catch (FileAlreadyExistsException raced) {
+                    // Another instance put its database in place first; the temporary file is deleted below
+                    return false;
+                }
+            }
+            System.out.println("Database created at " + destination);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create database " + destination, e);
+        } catch (SQLException e) {
+            throw new UncheckedIOException(new IOException("New database failed its check: " + e.getMessage(), e));
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Bring the new database to the latest schema and check its integrity before it is put in place
+    private static void verify(Path database) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database)) {
+            Migrations.migrate(connection);
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA quick_check;")) {
+                String result = rs.next() ? rs.getString(1) : "no result";
+                if (!result.equals("ok")) throw new SQLException("quick_check: " + result);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Deck;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of decks whose cards have been loaded, bounded by a budget on the total number of cached cards
+ * When the budget is exceeded, the least recently used decks are evicted (the deck just added never is).
+ * An evicted deck is simply forgotten: its cards are reloaded from the database the next time it is opened.
+ * The budget is set with the system property {@code trireme.deckCache.cards}.
+ * Each session has its own cache; its methods are synchronized so background loaders can share it.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class DeckCache {
+    private static final long DEFAULT_CARD_BUDGET = 500_000;
+    private final long cardBudget;
+    // In order of use: iteration starts at the least recently used deck (a use moves a deck to the end)
+    private final LinkedHashMap<String, Deck> decks = new LinkedHashMap<>();
+
+    /**
+     * DeckCache constructor (with the configured card budget)
+     */
+    DeckCache() { this(Long.getLong("trireme.deckCache.cards", DEFAULT_CARD_BUDGET)); }
+
+    /**
+     * DeckCache constructor
+     * @param cardBudget maximum number of cached cards
+     */
+    DeckCache(long cardBudget) { this.cardBudget = cardBudget; }
+
+    /**
+     * Get a cached deck (and mark it recently used)
+     * @param deckName deck name
+     * @return Deck instance, or null if not cached
+     */
+    synchronized Deck get(String deckName) {
+        Deck deck = decks.get(deckName);
+        if (deck != null) decks.putLast(deckName, deck);
+        return deck;
+    }
+
+    /**
+     * Get a cached deck without counting it as used
+     * @param deckName deck name
+     * @return Deck instance (null if the deck is not cached)
+     */
+    synchronized Deck peek(String deckName) { return decks.get(deckName); }
+
+    /**
+     * Cache a deck, evicting least recently used decks while over the card budget
+     * @param deck Deck instance with its cards loaded
+     */
+    synchronized void put(Deck deck) {
+        decks.putLast(deck.getName(), deck);
+        long cards = 0;
+        for (Deck cached : decks.values()) cards += cached.size();
+        Iterator<Map.Entry<String, Deck>> lru = decks.entrySet().iterator();
+        while (cards > cardBudget && lru.hasNext()) {
+            Deck evicted = lru.next().getValue();
+            if (evicted == deck) continue;
+            cards -= evicted.size();
+            lru.remove();
+        }
+    }
+
+    /**
+     * Remove a deck from the cache
+     * @param deckName deck name
+     * @return removed Deck instance, or null if not cached
+     */
+    synchronized Deck remove(String deckName) { return decks.remove(deckName); }
+
+    /**
+     * Remove all decks from the cache
+     */
+    synchronized void clear() { decks.clear(); }
+}
@@ -0,0 +1,158 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static com.michaelstucki.triremeflashcards.constants.Constants.*;
+
+/**
+ * Versioned schema migrations
+ * The schema version is kept in SQLite's {@code PRAGMA user_version}. Each migration runs once, in order,
+ * inside its own transaction together with the version bump, so a database is never left half-migrated.
+ * New migrations are appended to MIGRATIONS; existing entries must never be edited.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class Migrations {
+    // Ordered migrations: entry i upgrades the schema from version i to version i + 1
+    private static final Migration[] MIGRATIONS = {
+            new Migration("create users, decks, and cards tables",
+                    "CREATE TABLE IF NOT EXISTS " + usersTable +
+                            " (user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "userName VARCHAR(20) UNIQUE, password VARCHAR(20), " +
+                            " securityAnswer VARCHAR(20));",
+                    "CREATE TABLE IF NOT EXISTS " + decksTable +
+                            " (deck_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "name VARCHAR(40), user_id INTEGER, " +
+                            "FOREIGN KEY (user_id) REFERENCES " + usersTable + " (user_id) " +
+                            "ON DELETE CASCADE);",
+                    "CREATE TABLE IF NOT EXISTS " + cardsTable +
+                            " (card_id INTEGER PRIMARY KEY, " +
+                            "front TEXT, back TEXT, leitner_box INTEGER, leitner_target INTEGER, " +
+                            "creation_date TEXT, reviewed_date TEXT, " +
+                            "due_date TEXT, deck_id INTEGER, " +
+                            "number_reviews INTEGER, number_passes INTEGER, " +
+                            "FOREIGN KEY (deck_id) REFERENCES " + decksTable + " (deck_id) " +
+                            "ON DELETE CASCADE);"),
+            new Migration("index decks by owner and name, cards by deck and due date",
+                    // Deck lookups by (user, name) and deck lists per user
+                    "CREATE INDEX IF NOT EXISTS idx_decks_user_name ON " + decksTable + " (user_id, name);",
+                    // Card loads per deck, due-card selection per deck, and cascading deck deletes
+                    "CREATE INDEX IF NOT EXISTS idx_cards_deck_due ON " + cardsTable + " (deck_id, due_date);",
+                    "ANALYZE;"),
+            new Migration("store card dates as integer epoch days",
+                    // SQLite cannot change a column's type in place: copy into a new table, converting
+                    // yyyy-MM-dd text to days since 1970-01-01, then swap it in and rebuild its index
+                    "CREATE TABLE cards_v3 " +
+                            "(card_id INTEGER PRIMARY KEY, " +
+                            "front TEXT, back TEXT, leitner_box INTEGER, leitner_target INTEGER, " +
+                            "creation_date INTEGER, reviewed_date INTEGER, " +
+                            "due_date INTEGER, deck_id INTEGER, " +
+                            "number_reviews INTEGER, number_passes INTEGER, " +
+                            "FOREIGN KEY (deck_id) REFERENCES " + decksTable + " (deck_id) " +
+                            "ON DELETE CASCADE);",
+                    "INSERT INTO cards_v3 SELECT card_id, front, back, leitner_box, leitner_target, " +
+                            epochDay("creation_date") + ", " + epochDay("reviewed_date") + ", " +
+                            epochDay("due_date") + ", deck_id, number_reviews, number_passes FROM " +
+                            cardsTable + ";",
+                    "DROP TABLE " + cardsTable + ";",
+                    "ALTER TABLE cards_v3 RENAME TO " + cardsTable + ";",
+                    "CREATE INDEX idx_cards_deck_due ON " + cardsTable + " (deck_id, due_date);",
+                    "ANALYZE;"),
+            new Migration("add review log and daily review totals",
+                    // Append-only: one row per Pass/Fail; rows outlive their card but not their deck
+                    "CREATE TABLE review_log " +
+                            "(review_id INTEGER PRIMARY KEY, card_id INTEGER, deck_id INTEGER, " +
+                            "review_day INTEGER, reviewed_at INTEGER, passed INTEGER, " +
+                            "box_before INTEGER, box_after INTEGER, " +
+                            "FOREIGN KEY (deck_id) REFERENCES " + decksTable + " (deck_id) " +
+                            "ON DELETE CASCADE);",
+                    // Compaction deletes the oldest days
+                    "CREATE INDEX idx_review_log_day ON review_log (review_day);",
+                    "CREATE TABLE review_daily " +
+                            "(deck_id INTEGER, day INTEGER, reviews INTEGER, passes INTEGER, " +
+                            "PRIMARY KEY (deck_id, day), " +
+                            "FOREIGN KEY (deck_id) REFERENCES " + decksTable + " (deck_id) " +
+                            "ON DELETE CASCADE) WITHOUT ROWID;",
+                    // Daily totals are kept current as the log is appended; deleting log rows leaves them alone
+                    "CREATE TRIGGER review_log_daily AFTER INSERT ON review_log BEGIN " +
+                            "INSERT INTO review_daily (deck_id, day, reviews, passes) " +
+                            "VALUES (NEW.deck_id, NEW.review_day, 1, NEW.passed) " +
+                            "ON CONFLICT (deck_id, day) DO UPDATE SET reviews = reviews + 1, " +
+                            "passes = passes + excluded.passes; END;"),
+            new Migration("add full-text index of card fronts and backs",
+                    // External-content FTS5 table: the text stays in cards; the index holds only tokens.
+                    // remove_diacritics folds accents on Latin letters, so "cafe" finds "café"
+                    "CREATE VIRTUAL TABLE cards_fts USING fts5(front, back, content='" + cardsTable + "', " +
+                            "content_rowid='card_id', tokenize='unicode61 remove_diacritics 2');",
+                    "INSERT INTO cards_fts (cards_fts) VALUES ('rebuild');",
+                    "CREATE TRIGGER cards_fts_insert AFTER INSERT ON " + cardsTable + " BEGIN " +
+                            "INSERT INTO cards_fts (rowid, front, back) VALUES (NEW.card_id, NEW.front, NEW.back); " +
+                            "END;",
+                    "CREATE TRIGGER cards_fts_delete AFTER DELETE ON " + cardsTable + " BEGIN " +
+                            "INSERT INTO cards_fts (cards_fts, rowid, front, back) " +
+                            "VALUES ('delete', OLD.card_id, OLD.front, OLD.back); END;",
+                    // Reviews rewrite every column of a card; only a change of text touches the index
+                    "CREATE TRIGGER cards_fts_update AFTER UPDATE OF front, back ON " + cardsTable + " " +
+                            "WHEN OLD.front IS NOT NEW.front OR OLD.back IS NOT NEW.back BEGIN " +
+                            "INSERT INTO cards_fts (cards_fts, rowid, front, back) " +
+                            "VALUES ('delete', OLD.card_id, OLD.front, OLD.back); " +
+                            "INSERT INTO cards_fts (rowid, front, back) VALUES (NEW.card_id, NEW.front, NEW.back); " +
+                            "END;")
+    };
+
+    private Migrations() {}
+
+    /**
+     * Bring a database up to the latest schema version
+     * @param connection open connection to the database (in auto-commit mode)
+     * @throws SQLException if a migration fails (that migration is rolled back)
+     */
+    static void migrate(Connection connection) throws SQLException {
+        int version = currentVersion(connection);
+        for (int i = version; i < MIGRATIONS.length; i++) {
+            Migration migration = MIGRATIONS[i];
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.statements) stmt.execute(sql);
+                stmt.execute("PRAGMA user_version = " + (i + 1) + ";");
+                connection.commit();
+                if (verbose) {
+                    System.out.println("Database migrated to version " + (i + 1) + ": " + migration.description);
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    // SQL expression converting a yyyy-MM-dd text column to an epoch day (2440587.5 is the Julian day of 1970-01-01)
+    private static String epochDay(String column) {
+        return "CAST(julianday(" + column + ") - 2440587.5 AS INTEGER)";
+    }
+
+    // Read the schema version stored in the database file
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version;")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // A single schema change: a description and the SQL statements that apply it
+    private static final class Migration {
+        private final String description;
+        private final String[] statements;
+
+        private Migration(String description, String... statements) {
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Review;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-back buffer for card review results
+ * Drill sessions queue each reviewed card here instead of writing it immediately. Queued cards are
+ * snapshotted and coalesced by card ID (a card failed three times is written once), while review log
+ * entries are kept in order (all three failures are logged). Both are written in a single transaction
+ * by a background writer thread every FLUSH_EVERY_REVIEWS reviews or every FLUSH_INTERVAL_SECONDS
+ * seconds, whichever comes first. Queuing never waits on the database.
+ * A batch that fails is kept for the next flush. After MAX_ATTEMPTS failures in a row it is written one
+ * card at a time, and the cards (with their reviews) that still fail are dropped and reported, so a batch
+ * that can never succeed does not hold back the reviews queued after it.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class ReviewWriteBuffer {
+    private static final int FLUSH_EVERY_REVIEWS = 50;
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Writes a batch of cards and review log entries to the database in a single transaction
+     */
+    @FunctionalInterface
+    interface BatchWriter {
+        /**
+         * Write cards and append reviews
+         * @param cards card snapshots to write
+         * @param reviews review log entries to append, in the order they were given
+         * @throws SQLException if the batch could not be written (it is then rolled back)
+         */
+        void write(Collection<Card> cards, List<Review> reviews) throws SQLException;
+    }
+
+    private final BatchWriter writer;
+    // Pending card snapshots keyed by card ID, pending review log entries, and reviews queued since
+    // the last flush (guarded by pendingLock)
+    private final Object pendingLock = new Object();
+    private Map<Integer, Card> pending = new LinkedHashMap<>();
+    private List<Review> pendingReviews = new ArrayList<>();
+    private int reviewsSinceFlush;
+    // Serializes flushes so an older batch can never overwrite a newer one
+    private final Object flushLock = new Object();
+    // Failed flushes in a row of the batch now pending (guarded by flushLock)
+    private int failedAttempts;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * ReviewWriteBuffer constructor
+     * @param writer writes each flushed batch in one transaction
+     */
+    ReviewWriteBuffer(BatchWriter writer) {
+        this.writer = writer;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a card's current state to be written (replaces any pending state of the same card)
+     * @param card reviewed Card instance
+     */
+    void add(Card card) { add(card, null); }
+
+    /**
+     * Queue a card's current state and a review log entry to be written
+     * @param card reviewed Card instance
+     * @param review review log entry (null if the change is not a review)
+     */
+    void add(Card card, Review review) {
+        boolean flushDue;
+        synchronized (pendingLock) {
+            pending.put(card.getId(), new Card(card));
+            if (review != null) pendingReviews.add(review);
+            flushDue = ++reviewsSinceFlush >= FLUSH_EVERY_REVIEWS;
+            if (flushDue) reviewsSinceFlush = 0;
+        }
+        if (flushDue) flushAsync();
+    }
+
+    /**
+     * Ask the background writer to flush pending cards now (returns immediately)
+     */
+    void flushAsync() {
+        if (!executor.isShutdown()) executor.execute(this::flush);
+    }
+
+    /**
+     * Write all pending cards on the calling thread
+     */
+    void flush() {
+        synchronized (flushLock) {
+            Map<Integer, Card> batch;
+            List<Review> reviews;
+            synchronized (pendingLock) {
+                if (pending.isEmpty() && pendingReviews.isEmpty()) return;
+                batch = pending;
+                reviews = pendingReviews;
+                pending = new LinkedHashMap<>();
+                pendingReviews = new ArrayList<>();
+                reviewsSinceFlush = 0;
+            }
+            try {
+                writer.write(batch.values(), reviews);
+                failedAttempts = 0;
+            } catch (SQLException e) {
+                System.out.println("Database error: " + e.getMessage());
+                if (++failedAttempts >= MAX_ATTEMPTS) {
+                    failedAttempts = 0;
+                    writeSeparately(batch.values(), reviews);
+                    return;
+                }
+                // Keep the batch for the next flush unless a newer state of the card was queued meanwhile;
+                // its reviews go ahead of any queued since, so the log stays in order
+                synchronized (pendingLock) {
+                    batch.putAll(pending);
+                    pending = batch;
+                    reviews.addAll(pendingReviews);
+                    pendingReviews = reviews;
+                }
+            }
+        }
+    }
+
+    // Write each card with its reviews in its own transaction, dropping those that fail
+    private void writeSeparately(Collection<Card> cards, List<Review> reviews) {
+        Map<Integer, List<Review>> reviewsByCard = new LinkedHashMap<>();
+        for (Review review : reviews) {
+            reviewsByCard.computeIfAbsent(review.getCardId(), id -> new ArrayList<>()).add(review);
+        }
+        int dropped = 0;
+        for (Card card : cards) {
+            List<Review> cardReviews = reviewsByCard.remove(card.getId());
+            try {
+                writer.write(List.of(card), cardReviews == null ? List.of() : cardReviews);
+            } catch (SQLException e) {
+                System.out.println("Dropped review of card " + card.getId() + ": " + e.getMessage());
+                dropped++;
+            }
+        }
+        // Reviews whose card state was not queued (none are expected)
+        for (List<Review> cardReviews : reviewsByCard.values()) {
+            try {
+                writer.write(List.of(), cardReviews);
+            } catch (SQLException e) {
+                System.out.println("Dropped reviews of card " + cardReviews.get(0).getCardId() + ": " +
+                        e.getMessage());
+                dropped++;
+            }
+        }
+        if (dropped > 0) System.out.println("Review batch failed " + MAX_ATTEMPTS + " times; dropped " +
+                dropped + " of " + cards.size() + " cards");
+    }
+
+    /**
+     * Run a maintenance task periodically on the background writer thread, between flushes
+     * @param task task to run (first run shortly after it is scheduled)
+     * @param periodMinutes minutes between runs
+     */
+    void scheduleMaintenance(Runnable task, long periodMinutes) {
+        executor.scheduleWithFixedDelay(task, FLUSH_INTERVAL_SECONDS * 2, TimeUnit.MINUTES.toSeconds(periodMinutes),
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background writer and write anything still pending (called on app exit)
+     */
+    void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,75 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-connection cache of PreparedStatements keyed by their SQL text
+ * SQLite parses and plans each statement once per connection; later calls reuse the prepared statement.
+ * Cached statements are owned by the cache: callers bind parameters and execute, but never close them.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class StatementCache {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * StatementCache constructor
+     * @param connection connection the cached statements belong to
+     */
+    StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Get the prepared statement for an SQL command, preparing it on first use
+     * @param sql SQL command with ? placeholders
+     * @return PreparedStatement instance (parameters cleared)
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            misses++;
+            stmt = connection.prepareStatement(sql);
+            statements.put(sql, stmt);
+        } else {
+            hits++;
+            stmt.clearParameters();
+        }
+        return stmt;
+    }
+
+    /**
+     * Get number of requests served by an already prepared statement
+     * @return cache hits
+     */
+    long getHits() { return hits; }
+
+    /**
+     * Get number of requests that had to prepare a statement
+     * @return cache misses
+     */
+    long getMisses() { return misses; }
+
+    /**
+     * Close all cached statements
+     */
+    void close() {
+        for (PreparedStatement stmt : statements.values()) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                System.out.println("Database error: " + e.getMessage());
+            }
+        }
+        statements.clear();
+    }
+}
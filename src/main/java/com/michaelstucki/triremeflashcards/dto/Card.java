@@ -4,6 +4,9 @@ import static com.michaelstucki.triremeflashcards.constants.Constants.cardToken;
 
 /**
  * Card POJO: represents a flashcard
+ * Dates are held as epoch days (LocalDate.toEpochDay) so due-date checks are integer compares;
+ * they are converted to and from LocalDate only for display, import, and export.
+ * A subclass may keep the card's state elsewhere (see ColumnarCardStore) by overriding the accessors.
  * @author Michael Stucki
  * @version 1.0
  * @since 2025-09-21
@@ -12,41 +15,61 @@ public class Card {
     private final int cardId;
     private String front;
     private String back;
-    private final String creationDate;
-    private String reviewedDate;
-    private String dueDate;
+    private final int creationDay;
+    private int reviewedDay;
+    private int dueDay;
     private int leitnerBox;
     private int leitnerTarget;
     private int numberOfReviews;
     private int numberOfPasses;
+    // Store whose due index tracks this card's due date and box (null if none); that store changes them
+    private volatile MapCardStore owner;
 
     /**
      * Card Constructor
      * @param cardId ID (auto-assigned)
      * @param front front text
      * @param back back texts
-     * @param creationDate creation date
-     * @param reviewedDate last reviewed date
-     * @param dueDate next review due dater
+     * @param creationDay creation date (epoch day)
+     * @param reviewedDay last reviewed date (epoch day)
+     * @param dueDay next review due date (epoch day)
      * @param leitnerBox Leitner box
      * @param leitnerTarget Target Leitner box
      * @param numberOfReviews number of times it's been reviewed
      * @param numberOfPasses number of times it's been passed
      */
-    public Card(int cardId, String front, String back, String creationDate, String reviewedDate,
-                String dueDate, int leitnerBox, int leitnerTarget, int numberOfReviews, int numberOfPasses) {
+    public Card(int cardId, String front, String back, int creationDay, int reviewedDay,
+                int dueDay, int leitnerBox, int leitnerTarget, int numberOfReviews, int numberOfPasses) {
         this.cardId = cardId;
         this.front = front;
         this.back = back;
-        this.creationDate = creationDate;
-        this.reviewedDate = reviewedDate;
-        this.dueDate = dueDate;
+        this.creationDay = creationDay;
+        this.reviewedDay = reviewedDay;
+        this.dueDay = dueDay;
         this.leitnerBox = leitnerBox;
         this.leitnerTarget = leitnerTarget;
         this.numberOfReviews = numberOfReviews;
         this.numberOfPasses = numberOfPasses;
     }
 
+    /**
+     * Card copy constructor (a snapshot of the card's current state)
+     * @param card Card instance to copy
+     */
+    public Card(Card card) {
+        this(card.getId(), card.getFront(), card.getBack(), card.getCreationDay(), card.getReviewedDay(),
+                card.getDueDay(), card.getLeitnerBox(), card.getLeitnerTarget(), card.getNumberOfReviews(),
+                card.getNumberOfPasses());
+    }
+
+    /**
+     * Card constructor for a subclass that keeps the card's state elsewhere and overrides every accessor
+     * @param cardId card ID
+     */
+    protected Card(int cardId) {
+        this(cardId, null, null, 0, 0, 0, 0, 0, 0, 0);
+    }
+
     /**
      * Get Card ID
      * @return card ID
@@ -87,34 +110,48 @@ public class Card {
         this.back = back;
     }
 
+    /**
+     * Get card creation date
+     * @return card creation date (epoch day)
+     */
+    public int getCreationDay() { return creationDay; }
+
     /**
      * Get card reviewed date
-     * @return card reviewed date
+     * @return card reviewed date (epoch day)
      */
-    public String getReviewedDate() { return reviewedDate; }
+    public int getReviewedDay() { return reviewedDay; }
 
     /**
      * Set card reviewed date
-     * @param reviewedDate card reviewed date
+     * @param reviewedDay card reviewed date (epoch day)
      */
-    public void setReviewedDate(String reviewedDate) {
-        this.reviewedDate = reviewedDate;
+    public void setReviewedDay(int reviewedDay) {
+        this.reviewedDay = reviewedDay;
     }
 
     /**
      * Get card due date
-     * @return card due date
+     * @return card due date (epoch day)
      */
-    public String getDueDate() {
-        return dueDate;
+    public int getDueDay() {
+        return dueDay;
     }
 
     /**
      * Set card due date
-     * @param dueDate card due date
+     * @param dueDay card due date (epoch day)
      */
-    public void setDueDate(String dueDate) {
-        this.dueDate = dueDate;
+    public void setDueDay(int dueDay) {
+        // An owned card's due date and its index entry change together, under the owning store's lock
+        while (true) {
+            MapCardStore store = owner;
+            if (store == null) {
+                this.dueDay = dueDay;
+                return;
+            }
+            if (store.setDueDay(this, dueDay)) return;
+        }
     }
 
     /**
@@ -130,7 +167,15 @@ public class Card {
      * @param leitnerBox Leitner box
      */
     public void setLeitnerBox(int leitnerBox) {
-        this.leitnerBox = leitnerBox;
+        // An owned card's box and its box count change together, under the owning store's lock
+        while (true) {
+            MapCardStore store = owner;
+            if (store == null) {
+                this.leitnerBox = leitnerBox;
+                return;
+            }
+            if (store.setLeitnerBox(this, leitnerBox)) return;
+        }
     }
 
     /**
@@ -181,10 +226,22 @@ public class Card {
         this.numberOfPasses = numberOfPasses;
     }
 
+    // Set the due date field alone (called by the owning MapCardStore, which indexes the change)
+    void writeDueDay(int dueDay) { this.dueDay = dueDay; }
+
+    // Set the Leitner box field alone (called by the owning MapCardStore, which counts the change)
+    void writeLeitnerBox(int leitnerBox) { this.leitnerBox = leitnerBox; }
+
+    // Set or clear the store that indexes this card (called by MapCardStore)
+    void setOwner(MapCardStore owner) { this.owner = owner; }
+
+    // Get the store that indexes this card (null if none)
+    MapCardStore getOwner() { return owner; }
+
     /**
      * Get card string representation
      * @return card ID, front, back
      */
     @Override
-    public String toString() { return cardId + cardToken + front + cardToken + back; }
+    public String toString() { return getId() + cardToken + getFront() + cardToken + getBack(); }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Hash map from int card ID to Card, without boxing: open addressing with linear probing over parallel
+ * key and value arrays, kept at most half full
+ * Lookup, insert, removal, and iteration allocate nothing (insert allocates only when the table grows).
+ * Removal shifts the following entries of the probe run back, so there are no tombstones to clean up.
+ * Not thread-safe: MapCardStore guards it with its monitor.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class CardMap {
+    private static final int MIN_CAPACITY = 16;
+    private int[] keys;
+    // An empty entry has a null value
+    private Card[] values;
+    private int size;
+    // Fibonacci hashing: the top bits of key * 2^32 / phi index the table
+    private int shift;
+
+    /**
+     * CardMap constructor
+     * @param expectedCards number of cards the map is sized for (it grows past that as needed)
+     */
+    CardMap(int expectedCards) { allocate(tableSize(expectedCards)); }
+
+    /**
+     * Get number of cards
+     * @return number of cards
+     */
+    int size() { return size; }
+
+    /**
+     * Get a card
+     * @param cardId card ID
+     * @return Card instance (null if the map has no such card)
+     */
+    Card get(int cardId) {
+        int mask = keys.length - 1;
+        for (int i = index(cardId); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == cardId) return values[i];
+        }
+        return null;
+    }
+
+    /**
+     * Add a card, or replace the card with the same ID
+     * @param cardId card ID
+     * @param card Card instance
+     * @return replaced Card instance (null if there was none)
+     */
+    Card put(int cardId, Card card) {
+        Objects.requireNonNull(card, "card");
+        int mask = keys.length - 1;
+        int i = index(cardId);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == cardId) {
+                Card replaced = values[i];
+                values[i] = card;
+                return replaced;
+            }
+        }
+        keys[i] = cardId;
+        values[i] = card;
+        if (++size > keys.length >> 1) rehash(keys.length << 1);
+        return null;
+    }
+
+    /**
+     * Remove a card
+     * @param cardId card ID
+     * @return removed Card instance (null if there was none)
+     */
+    Card remove(int cardId) {
+        int mask = keys.length - 1;
+        int i = index(cardId);
+        while (values[i] != null && keys[i] != cardId) i = (i + 1) & mask;
+        Card removed = values[i];
+        if (removed == null) return null;
+        // Shift back each later entry of the run that may move into the hole without passing its home index
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        values[i] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Perform an action on each card (in table order)
+     * @param action action to perform
+     */
+    void forEach(Consumer<? super Card> action) {
+        for (Card card : values) {
+            if (card != null) action.accept(card);
+        }
+    }
+
+    private int index(int cardId) { return (cardId * 0x9E3779B9) >>> shift; }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Card[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] == null) continue;
+            int i = index(oldKeys[slot]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[slot];
+            values[i] = oldValues[slot];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Card[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    // Smallest power of two that holds the cards at most half full
+    private static int tableSize(int expectedCards) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, 2 * expectedCards) - 1) << 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Backing store of a deck's cards, keyed by card ID: the read-only view plus the changes Deck makes
+ * Implementations are thread-safe, so a background task may add cards while the UI lists them.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+interface CardStore extends DeckCards {
+    Comparator<Card> ID_ORDER = Comparator.comparingInt(Card::getId);
+
+    /**
+     * Add a card, or replace the card with the same ID
+     * @param cardId card ID
+     * @param card Card instance
+     */
+    void put(int cardId, Card card);
+
+    /**
+     * Remove a card
+     * @param cardId card ID
+     */
+    void remove(int cardId);
+
+    /**
+     * Get the cards due on or before a date, oldest due first (from the due index, without a scan)
+     * @param dueDay due date cut-off (epoch day)
+     * @param limit maximum number of cards returned
+     * @return due Card instances
+     */
+    List<Card> dueCards(int dueDay, int limit);
+
+    /**
+     * Count the cards due on or before a date
+     * @param dueDay due date cut-off (epoch day)
+     * @return number of cards
+     */
+    int countDue(int dueDay);
+
+    /**
+     * Count the cards due on a date
+     * @param dueDay due date (epoch day)
+     * @return number of cards
+     */
+    int countDueOn(int dueDay);
+
+    /**
+     * Count the cards in a Leitner box
+     * @param leitnerBox Leitner box
+     * @return number of cards
+     */
+    int countInBox(int leitnerBox);
+}
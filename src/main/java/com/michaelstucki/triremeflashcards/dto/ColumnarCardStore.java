@@ -0,0 +1,344 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Columnar card store for very large decks: card fields in parallel primitive arrays, one entry per slot
+ * A card's ID, dates, Leitner box and target, and review and pass counts are ints in per-field arrays; its
+ * front and back are UTF-8 bytes in one shared text pool. Card IDs map to slots through an open-addressing
+ * int index. Nothing is allocated per card, so a card costs a few dozen bytes plus its text instead of a
+ * map entry, a boxed key, a Card, and two Strings.
+ * Card instances are views made on demand: their getters read the arrays and their setters write them.
+ * A removed card's slot is never reused (its views keep reading its last state, and re-adding the ID
+ * brings the slot back), so a view never sees another card. Removed slots and the bytes of replaced text
+ * are reclaimed when the deck is next loaded. The views' setters keep the due index current.
+ * All access is guarded by the store's monitor.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class ColumnarCardStore implements CardStore {
+    private static final int MIN_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
+    // Card fields, indexed by slot
+    private int[] ids;
+    private int[] creationDays;
+    private int[] reviewedDays;
+    private int[] dueDays;
+    private int[] leitnerBoxes;
+    private int[] leitnerTargets;
+    private int[] reviewCounts;
+    private int[] passCounts;
+    // Text pool offsets and lengths of each slot's front and back
+    private int[] frontOffsets;
+    private int[] frontLengths;
+    private int[] backOffsets;
+    private int[] backLengths;
+    private byte[] text = new byte[MIN_CAPACITY * 32];
+    private int textSize;
+    private int slots;
+    private final BitSet live = new BitSet();
+    private int liveCount;
+    // Open-addressing index from card ID to slot: a table of slot + 1 (0 marks an empty entry), probed linearly
+    private int[] index;
+    private final DueIndex due = new DueIndex();
+
+    /**
+     * ColumnarCardStore constructor
+     * @param expectedCards number of cards the store is sized for (it grows past that as needed)
+     */
+    ColumnarCardStore(int expectedCards) {
+        allocate(Math.max(MIN_CAPACITY, expectedCards));
+        index = new int[tableSize(ids.length)];
+    }
+
+    @Override
+    public synchronized void put(int cardId, Card card) {
+        int slot = slotOf(cardId);
+        if (slot == NO_SLOT) {
+            slot = slots++;
+            if (slot == ids.length) grow();
+            ids[slot] = cardId;
+            index(cardId, slot);
+        } else if (card instanceof SlotCard view && view.store() == this && view.slot == slot) {
+            // Re-adding a card's own view (e.g. undoing its removal): its state is already in place
+            setLive(slot);
+            return;
+        } else if (live.get(slot)) {
+            due.remove(cardId, dueDays[slot], leitnerBoxes[slot]);
+            live.clear(slot);
+            liveCount--;
+        }
+        setText(slot, card.getFront(), true);
+        setText(slot, card.getBack(), false);
+        creationDays[slot] = card.getCreationDay();
+        reviewedDays[slot] = card.getReviewedDay();
+        dueDays[slot] = card.getDueDay();
+        leitnerBoxes[slot] = card.getLeitnerBox();
+        leitnerTargets[slot] = card.getLeitnerTarget();
+        reviewCounts[slot] = card.getNumberOfReviews();
+        passCounts[slot] = card.getNumberOfPasses();
+        setLive(slot);
+    }
+
+    @Override
+    public synchronized Card get(int cardId) {
+        int slot = slotOf(cardId);
+        return slot != NO_SLOT && live.get(slot) ? new SlotCard(cardId, slot) : null;
+    }
+
+    @Override
+    public synchronized void remove(int cardId) {
+        int slot = slotOf(cardId);
+        if (slot != NO_SLOT && live.get(slot)) {
+            due.remove(cardId, dueDays[slot], leitnerBoxes[slot]);
+            live.clear(slot);
+            liveCount--;
+        }
+    }
+
+    @Override
+    public synchronized int size() { return liveCount; }
+
+    @Override
+    public synchronized List<Card> dueCards(int dueDay, int limit) {
+        List<Card> list = new ArrayList<>(Math.min(limit, due.countDue(dueDay)));
+        due.forEachDue(dueDay, limit, cardId -> list.add(new SlotCard(cardId, slotOf(cardId))));
+        return list;
+    }
+
+    @Override
+    public synchronized int countDue(int dueDay) { return due.countDue(dueDay); }
+
+    @Override
+    public synchronized int countDueOn(int dueDay) { return due.countDueOn(dueDay); }
+
+    @Override
+    public synchronized int countInBox(int leitnerBox) { return due.countInBox(leitnerBox); }
+
+    @Override
+    public synchronized void forEach(Consumer<? super Card> action) {
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            action.accept(new SlotCard(ids[slot], slot));
+        }
+    }
+
+    @Override
+    public List<Card> toList() {
+        List<Card> list;
+        synchronized (this) {
+            list = new ArrayList<>(liveCount);
+            forEach(list::add);
+        }
+        list.sort(ID_ORDER);
+        return list;
+    }
+
+    private void setLive(int slot) {
+        if (!live.get(slot)) {
+            live.set(slot);
+            liveCount++;
+            due.add(ids[slot], dueDays[slot], leitnerBoxes[slot]);
+        }
+    }
+
+    // Append text to the pool and point the slot's front or back at it
+    private void setText(int slot, String value, boolean front) {
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        int offset = textSize;
+        int length = bytes == null ? -1 : bytes.length;
+        if (bytes != null) {
+            if (textSize + bytes.length > text.length) {
+                text = Arrays.copyOf(text, Math.max(textSize + bytes.length, text.length + (text.length >> 1)));
+            }
+            System.arraycopy(bytes, 0, text, textSize, bytes.length);
+            textSize += bytes.length;
+        }
+        if (front) {
+            frontOffsets[slot] = offset;
+            frontLengths[slot] = length;
+        } else {
+            backOffsets[slot] = offset;
+            backLengths[slot] = length;
+        }
+    }
+
+    // Text of a pool range (a length of -1 stands for null)
+    private String text(int offset, int length) {
+        return length < 0 ? null : new String(text, offset, length, StandardCharsets.UTF_8);
+    }
+
+    private int slotOf(int cardId) {
+        int mask = index.length - 1;
+        for (int i = hash(cardId) & mask; index[i] != 0; i = (i + 1) & mask) {
+            if (ids[index[i] - 1] == cardId) return index[i] - 1;
+        }
+        return NO_SLOT;
+    }
+
+    private void index(int cardId, int slot) {
+        // Keep the table at most half full
+        if (2 * slots > index.length) {
+            index = new int[tableSize(2 * slots)];
+            for (int existing = 0; existing < slots - 1; existing++) insert(ids[existing], existing);
+        }
+        insert(cardId, slot);
+    }
+
+    private void insert(int cardId, int slot) {
+        int mask = index.length - 1;
+        int i = hash(cardId) & mask;
+        while (index[i] != 0) i = (i + 1) & mask;
+        index[i] = slot + 1;
+    }
+
+    // Card IDs are mostly sequential: spread them over the table
+    private static int hash(int cardId) {
+        int h = cardId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Smallest power of two that is at least twice the number of entries
+    private static int tableSize(int entries) {
+        return Integer.highestOneBit(Math.max(MIN_CAPACITY, 2 * entries) - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        creationDays = new int[capacity];
+        reviewedDays = new int[capacity];
+        dueDays = new int[capacity];
+        leitnerBoxes = new int[capacity];
+        leitnerTargets = new int[capacity];
+        reviewCounts = new int[capacity];
+        passCounts = new int[capacity];
+        frontOffsets = new int[capacity];
+        frontLengths = new int[capacity];
+        backOffsets = new int[capacity];
+        backLengths = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        creationDays = Arrays.copyOf(creationDays, capacity);
+        reviewedDays = Arrays.copyOf(reviewedDays, capacity);
+        dueDays = Arrays.copyOf(dueDays, capacity);
+        leitnerBoxes = Arrays.copyOf(leitnerBoxes, capacity);
+        leitnerTargets = Arrays.copyOf(leitnerTargets, capacity);
+        reviewCounts = Arrays.copyOf(reviewCounts, capacity);
+        passCounts = Arrays.copyOf(passCounts, capacity);
+        frontOffsets = Arrays.copyOf(frontOffsets, capacity);
+        frontLengths = Arrays.copyOf(frontLengths, capacity);
+        backOffsets = Arrays.copyOf(backOffsets, capacity);
+        backLengths = Arrays.copyOf(backLengths, capacity);
+    }
+
+    // A card whose state lives in the store's slot (each accessor locks the store)
+    private final class SlotCard extends Card {
+        private final int slot;
+
+        private SlotCard(int cardId, int slot) {
+            super(cardId);
+            this.slot = slot;
+        }
+
+        private ColumnarCardStore store() { return ColumnarCardStore.this; }
+
+        @Override
+        public String getFront() {
+            synchronized (ColumnarCardStore.this) { return text(frontOffsets[slot], frontLengths[slot]); }
+        }
+
+        @Override
+        public void setFront(String front) {
+            synchronized (ColumnarCardStore.this) { setText(slot, front, true); }
+        }
+
+        @Override
+        public String getBack() {
+            synchronized (ColumnarCardStore.this) { return text(backOffsets[slot], backLengths[slot]); }
+        }
+
+        @Override
+        public void setBack(String back) {
+            synchronized (ColumnarCardStore.this) { setText(slot, back, false); }
+        }
+
+        @Override
+        public int getCreationDay() {
+            synchronized (ColumnarCardStore.this) { return creationDays[slot]; }
+        }
+
+        @Override
+        public int getReviewedDay() {
+            synchronized (ColumnarCardStore.this) { return reviewedDays[slot]; }
+        }
+
+        @Override
+        public void setReviewedDay(int reviewedDay) {
+            synchronized (ColumnarCardStore.this) { reviewedDays[slot] = reviewedDay; }
+        }
+
+        @Override
+        public int getDueDay() {
+            synchronized (ColumnarCardStore.this) { return dueDays[slot]; }
+        }
+
+        @Override
+        public void setDueDay(int dueDay) {
+            synchronized (ColumnarCardStore.this) {
+                if (live.get(slot)) due.moveDay(ids[slot], dueDays[slot], dueDay);
+                dueDays[slot] = dueDay;
+            }
+        }
+
+        @Override
+        public int getLeitnerBox() {
+            synchronized (ColumnarCardStore.this) { return leitnerBoxes[slot]; }
+        }
+
+        @Override
+        public void setLeitnerBox(int leitnerBox) {
+            synchronized (ColumnarCardStore.this) {
+                if (live.get(slot)) due.moveBox(leitnerBoxes[slot], leitnerBox);
+                leitnerBoxes[slot] = leitnerBox;
+            }
+        }
+
+        @Override
+        public int getLeitnerTarget() {
+            synchronized (ColumnarCardStore.this) { return leitnerTargets[slot]; }
+        }
+
+        @Override
+        public void setLeitnerTarget(int leitnerTarget) {
+            synchronized (ColumnarCardStore.this) { leitnerTargets[slot] = leitnerTarget; }
+        }
+
+        @Override
+        public int getNumberOfReviews() {
+            synchronized (ColumnarCardStore.this) { return reviewCounts[slot]; }
+        }
+
+        @Override
+        public void setNumberOfReviews(int numberOfReviews) {
+            synchronized (ColumnarCardStore.this) { reviewCounts[slot] = numberOfReviews; }
+        }
+
+        @Override
+        public int getNumberOfPasses() {
+            synchronized (ColumnarCardStore.this) { return passCounts[slot]; }
+        }
+
+        @Override
+        public void setNumberOfPasses(int numberOfPasses) {
+            synchronized (ColumnarCardStore.this) { passCounts[slot] = numberOfPasses; }
+        }
+    }
+}
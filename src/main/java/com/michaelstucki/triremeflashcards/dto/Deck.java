@@ -1,27 +1,53 @@
 package com.michaelstucki.triremeflashcards.dto;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Deck POJO: represents a deck (of cards)
+ * Cards are held in a thread-safe card store, so a background task may add cards while the UI lists them.
+ * A deck's cards are Card instances in an int-keyed hash map, or, for very large decks (see columnar()),
+ * columns of primitive arrays that Card views read and write. Others see them through a read-only view.
+ * The store keeps a due-date calendar of the cards, updated as cards are added, removed, and reviewed,
+ * so due cards and due counts come without a scan of the deck.
  * @author Michael Stucki
  * @version 1.0
  * @since 2025-09-21
  */
 public class Deck {
     private final String name;
-    private Map<Integer, Card> cards;
+    private final CardStore cards;
 
     /**
      * Deck constructor
      * @param title deck title (name)
      */
     public Deck(String title) {
+        this(title, new MapCardStore());
+    }
+
+    private Deck(String title, CardStore cards) {
         this.name = title;
-        cards = new HashMap<>();
+        this.cards = cards;
+    }
+
+    /**
+     * Create a deck that keeps its cards in columns rather than as Card instances
+     * (much less memory for very large decks; getCard() and getCards() return views of the columns)
+     * @param title deck title (name)
+     * @param expectedCards number of cards the deck is sized for
+     * @return Deck instance
+     */
+    public static Deck columnar(String title, int expectedCards) {
+        return new Deck(title, new ColumnarCardStore(expectedCards));
     }
 
+    /**
+     * Create a deck with another name that shares this deck's cards
+     * @param title new deck title (name)
+     * @return Deck instance
+     */
+    public Deck renamed(String title) { return new Deck(title, cards); }
+
     /**
      * Add card to deck
      * @param cardId card ID
@@ -39,10 +65,10 @@ public class Deck {
     public Card getCard(int id) { return cards.get(id); }
 
     /**
-     * Delete deck
-     * @param id deck ID
+     * Delete card from deck
+     * @param id card ID
      */
-    public void deleteCard(Integer id) {
+    public void deleteCard(int id) {
         cards.remove(id);
     }
 
@@ -54,15 +80,51 @@ public class Deck {
 
     /**
      * Get deck cards
-     * @return deck cards
+     * @return read-only view of the deck's cards
+     */
+    public DeckCards getCards() { return cards; }
+
+    /**
+     * Get number of cards in the deck
+     * @return number of cards
+     */
+    public int size() { return cards.size(); }
+
+    /**
+     * Get the deck's cards that are due on or before a date (in time proportional to the number returned)
+     * @param dueDay due date cut-off as an epoch day (usually today)
+     * @param limit maximum number of cards returned
+     * @return due Card instances, oldest due first
+     */
+    public List<Card> getDueCards(int dueDay, int limit) { return cards.dueCards(dueDay, limit); }
+
+    /**
+     * Get number of cards due today or overdue
+     * @param today today's date (epoch day)
+     * @return number of cards
+     */
+    public int getDueCount(int today) { return cards.countDue(today); }
+
+    /**
+     * Get number of cards due today (not counting overdue cards)
+     * @param today today's date (epoch day)
+     * @return number of cards
+     */
+    public int getDueTodayCount(int today) { return cards.countDueOn(today); }
+
+    /**
+     * Get number of overdue cards (due before today)
+     * @param today today's date (epoch day)
+     * @return number of cards
      */
-    public Map<Integer, Card> getCards() { return cards; }
+    public int getOverdueCount(int today) { return cards.countDue(today - 1); }
 
     /**
-     * Set the deck cards
-     * @param cards deck cards
+     * Get number of cards in a Leitner box
+     * @param leitnerBox Leitner box
+     * @return number of cards
      */
-    public void setCards(Map<Integer, Card> cards) { this.cards = cards; }
+    public int getBoxCount(int leitnerBox) { return cards.countInBox(leitnerBox); }
 
     /**
      * Deck string representation
@@ -70,4 +132,4 @@ public class Deck {
      */
     @Override
     public String toString() { return name; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of a deck's cards, keyed by int card ID (change the cards through Deck or the Dao)
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public interface DeckCards {
+    /**
+     * Get number of cards
+     * @return number of cards
+     */
+    int size();
+
+    /**
+     * Get a card
+     * @param cardId card ID
+     * @return Card instance (null if the deck has no such card)
+     */
+    Card get(int cardId);
+
+    /**
+     * Check whether the deck has a card
+     * @param cardId card ID
+     * @return true if the deck has the card
+     */
+    default boolean contains(int cardId) { return get(cardId) != null; }
+
+    /**
+     * Perform an action on each card, in no particular order (cards cannot be added or removed meanwhile,
+     * so the action must not add or remove cards)
+     * @param action action to perform
+     */
+    void forEach(Consumer<? super Card> action);
+
+    /**
+     * Get a snapshot of the cards
+     * @return Card instances in card ID order
+     */
+    List<Card> toList();
+}
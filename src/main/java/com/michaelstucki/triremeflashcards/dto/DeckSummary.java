@@ -0,0 +1,62 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+/**
+ * DeckSummary POJO: a deck's metadata, loaded without its cards
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class DeckSummary {
+    private final String name;
+    private final int cardCount;
+    private final int dueCount;
+    private final String lastReviewedDate;
+
+    /**
+     * DeckSummary constructor
+     * @param name deck name
+     * @param cardCount number of cards in deck
+     * @param dueCount number of cards due today (or overdue)
+     * @param lastReviewedDate date a card of the deck was last reviewed (null if never)
+     */
+    public DeckSummary(String name, int cardCount, int dueCount, String lastReviewedDate) {
+        this.name = name;
+        this.cardCount = cardCount;
+        this.dueCount = dueCount;
+        this.lastReviewedDate = lastReviewedDate;
+    }
+
+    /**
+     * Get deck name
+     * @return deck name
+     */
+    public String getName() { return name; }
+
+    /**
+     * Get number of cards in deck
+     * @return number of cards
+     */
+    public int getCardCount() { return cardCount; }
+
+    /**
+     * Get number of cards due today (or overdue)
+     * @return number of due cards
+     */
+    public int getDueCount() { return dueCount; }
+
+    /**
+     * Get date a card of the deck was last reviewed
+     * @return last reviewed date (null if never)
+     */
+    public String getLastReviewedDate() { return lastReviewedDate; }
+
+    /**
+     * Deck summary string representation
+     * @return deck name and counts
+     */
+    @Override
+    public String toString() {
+        return name + " (" + cardCount + " cards, " + dueCount + " due, " +
+                (lastReviewedDate == null ? "never reviewed" : "last reviewed " + lastReviewedDate) + ")";
+    }
+}
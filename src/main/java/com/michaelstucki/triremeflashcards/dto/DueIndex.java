@@ -0,0 +1,192 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Due-date calendar of a deck's cards: card IDs bucketed by due day, plus the number of cards in each
+ * Leitner box
+ * The stores update it as cards are added, removed, and reviewed, so finding the due cards costs time
+ * in proportion to the number of due cards (and due days), not to the size of the deck, and the counts
+ * are always current. Not thread-safe: the stores guard it with their monitors.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class DueIndex {
+    // Buckets of card IDs by due day (epoch day); a bucket is dropped when it empties
+    private final TreeMap<Integer, IdSet> days = new TreeMap<>();
+    private int[] boxCounts = new int[8];
+
+    /**
+     * Index a card
+     * @param cardId card ID
+     * @param dueDay card's due date (epoch day)
+     * @param leitnerBox card's Leitner box
+     */
+    void add(int cardId, int dueDay, int leitnerBox) {
+        days.computeIfAbsent(dueDay, day -> new IdSet()).add(cardId);
+        countBox(leitnerBox, 1);
+    }
+
+    /**
+     * Remove a card from the index
+     * @param cardId card ID
+     * @param dueDay card's indexed due date (epoch day)
+     * @param leitnerBox card's indexed Leitner box
+     */
+    void remove(int cardId, int dueDay, int leitnerBox) {
+        IdSet bucket = days.get(dueDay);
+        if (bucket != null && bucket.remove(cardId) && bucket.size() == 0) days.remove(dueDay);
+        countBox(leitnerBox, -1);
+    }
+
+    /**
+     * Move a card to another due day
+     * @param cardId card ID
+     * @param oldDueDay indexed due date (epoch day)
+     * @param newDueDay new due date (epoch day)
+     */
+    void moveDay(int cardId, int oldDueDay, int newDueDay) {
+        if (oldDueDay == newDueDay) return;
+        IdSet bucket = days.get(oldDueDay);
+        if (bucket != null && bucket.remove(cardId) && bucket.size() == 0) days.remove(oldDueDay);
+        days.computeIfAbsent(newDueDay, day -> new IdSet()).add(cardId);
+    }
+
+    /**
+     * Move a card to another Leitner box
+     * @param oldBox indexed Leitner box
+     * @param newBox new Leitner box
+     */
+    void moveBox(int oldBox, int newBox) {
+        if (oldBox == newBox) return;
+        countBox(oldBox, -1);
+        countBox(newBox, 1);
+    }
+
+    private void countBox(int leitnerBox, int delta) {
+        if (leitnerBox < 0) return;
+        if (leitnerBox >= boxCounts.length) {
+            boxCounts = Arrays.copyOf(boxCounts, Math.max(leitnerBox + 1, 2 * boxCounts.length));
+        }
+        boxCounts[leitnerBox] += delta;
+    }
+
+    /**
+     * Visit the IDs of the cards due on or before a date, oldest due first (in no set order within a day)
+     * @param dueDay due date cut-off (epoch day)
+     * @param limit maximum number of IDs visited
+     * @param action action performed on each ID
+     */
+    void forEachDue(int dueDay, int limit, IntConsumer action) {
+        int remaining = limit;
+        for (IdSet bucket : days.headMap(dueDay, true).values()) {
+            remaining = bucket.forEach(remaining, action);
+            if (remaining == 0) return;
+        }
+    }
+
+    /**
+     * Count the cards due on or before a date
+     * @param dueDay due date cut-off (epoch day)
+     * @return number of cards
+     */
+    int countDue(int dueDay) {
+        int count = 0;
+        for (IdSet bucket : days.headMap(dueDay, true).values()) count += bucket.size();
+        return count;
+    }
+
+    /**
+     * Count the cards due on a date
+     * @param dueDay due date (epoch day)
+     * @return number of cards
+     */
+    int countDueOn(int dueDay) {
+        IdSet bucket = days.get(dueDay);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    /**
+     * Count the cards in a Leitner box
+     * @param leitnerBox Leitner box
+     * @return number of cards
+     */
+    int countInBox(int leitnerBox) {
+        return leitnerBox >= 0 && leitnerBox < boxCounts.length ? boxCounts[leitnerBox] : 0;
+    }
+
+    // Set of card IDs: open addressing with linear probing, removal by backward shift
+    private static final class IdSet {
+        private static final int EMPTY = Integer.MIN_VALUE;
+        private int[] ids = newTable(4);
+        private int size;
+
+        int size() { return size; }
+
+        void add(int cardId) {
+            int mask = ids.length - 1;
+            int i = index(cardId, mask);
+            for (; ids[i] != EMPTY; i = (i + 1) & mask) {
+                if (ids[i] == cardId) return;
+            }
+            ids[i] = cardId;
+            if (++size > ids.length >> 1) rehash(ids.length << 1);
+        }
+
+        boolean remove(int cardId) {
+            int mask = ids.length - 1;
+            int i = index(cardId, mask);
+            while (ids[i] != EMPTY && ids[i] != cardId) i = (i + 1) & mask;
+            if (ids[i] == EMPTY) return false;
+            for (int j = (i + 1) & mask; ids[j] != EMPTY; j = (j + 1) & mask) {
+                if (((j - index(ids[j], mask)) & mask) >= ((j - i) & mask)) {
+                    ids[i] = ids[j];
+                    i = j;
+                }
+            }
+            ids[i] = EMPTY;
+            size--;
+            // Shrink a bucket that has mostly emptied, so visiting it stays proportional to its size
+            if (ids.length > 4 && size < ids.length >> 3) rehash(ids.length >> 1);
+            return true;
+        }
+
+        // Visit at most limit IDs; returns how many of the limit remain
+        int forEach(int limit, IntConsumer action) {
+            for (int id : ids) {
+                if (limit == 0) break;
+                if (id != EMPTY) {
+                    action.accept(id);
+                    limit--;
+                }
+            }
+            return limit;
+        }
+
+        private void rehash(int capacity) {
+            int[] old = ids;
+            ids = newTable(capacity);
+            int mask = ids.length - 1;
+            for (int id : old) {
+                if (id == EMPTY) continue;
+                int i = index(id, mask);
+                while (ids[i] != EMPTY) i = (i + 1) & mask;
+                ids[i] = id;
+            }
+        }
+
+        private static int index(int cardId, int mask) {
+            int h = cardId * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int[] newTable(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+}
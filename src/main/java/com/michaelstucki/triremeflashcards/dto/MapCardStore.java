@@ -0,0 +1,94 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Card store backed by an int-keyed hash map of Card instances (the store of all but very large decks)
+ * The store owns the cards added to it: their due date and Leitner box are changed through it, together
+ * with its due index, so the index stays current through reviews, even while another thread removes the
+ * card. All access is guarded by the store's monitor.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class MapCardStore implements CardStore {
+    private final CardMap cards = new CardMap(0);
+    private final DueIndex due = new DueIndex();
+
+    @Override
+    public synchronized void put(int cardId, Card card) {
+        Card replaced = cards.put(cardId, card);
+        if (replaced != null) unindex(replaced);
+        card.setOwner(this);
+        due.add(cardId, card.getDueDay(), card.getLeitnerBox());
+    }
+
+    @Override
+    public synchronized Card get(int cardId) { return cards.get(cardId); }
+
+    @Override
+    public synchronized void remove(int cardId) {
+        Card removed = cards.remove(cardId);
+        if (removed != null) unindex(removed);
+    }
+
+    private void unindex(Card card) {
+        due.remove(card.getId(), card.getDueDay(), card.getLeitnerBox());
+        if (card.getOwner() == this) card.setOwner(null);
+    }
+
+    @Override
+    public synchronized int size() { return cards.size(); }
+
+    @Override
+    public synchronized void forEach(Consumer<? super Card> action) { cards.forEach(action); }
+
+    @Override
+    public List<Card> toList() {
+        List<Card> list;
+        synchronized (this) {
+            list = new ArrayList<>(cards.size());
+            cards.forEach(list::add);
+        }
+        list.sort(ID_ORDER);
+        return list;
+    }
+
+    @Override
+    public synchronized List<Card> dueCards(int dueDay, int limit) {
+        List<Card> list = new ArrayList<>(Math.min(limit, due.countDue(dueDay)));
+        due.forEachDue(dueDay, limit, cardId -> list.add(cards.get(cardId)));
+        return list;
+    }
+
+    @Override
+    public synchronized int countDue(int dueDay) { return due.countDue(dueDay); }
+
+    @Override
+    public synchronized int countDueOn(int dueDay) { return due.countDueOn(dueDay); }
+
+    @Override
+    public synchronized int countInBox(int leitnerBox) { return due.countInBox(leitnerBox); }
+
+    // Change an owned card's due date and move it in the due index (called by Card.setDueDay)
+    // Returns false, changing nothing, if the store no longer owns the card
+    synchronized boolean setDueDay(Card card, int dueDay) {
+        if (card.getOwner() != this) return false;
+        int oldDueDay = card.getDueDay();
+        card.writeDueDay(dueDay);
+        if (cards.get(card.getId()) == card) due.moveDay(card.getId(), oldDueDay, dueDay);
+        return true;
+    }
+
+    // Change an owned card's Leitner box and its box count (called by Card.setLeitnerBox)
+    // Returns false, changing nothing, if the store no longer owns the card
+    synchronized boolean setLeitnerBox(Card card, int leitnerBox) {
+        if (card.getOwner() != this) return false;
+        int oldLeitnerBox = card.getLeitnerBox();
+        card.writeLeitnerBox(leitnerBox);
+        if (cards.get(card.getId()) == card) due.moveBox(oldLeitnerBox, leitnerBox);
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+/**
+ * Review POJO: one Pass or Fail given to a card during a drill (a row of the review log)
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class Review {
+    private final int cardId;
+    private final int reviewDay;
+    private final long reviewedAt;
+    private final boolean passed;
+    private final int boxBefore;
+    private final int boxAfter;
+
+    /**
+     * Review constructor
+     * @param cardId reviewed card's ID
+     * @param reviewDay date of the review (epoch day)
+     * @param reviewedAt time of the review (epoch milliseconds)
+     * @param passed true for Pass, false for Fail
+     * @param boxBefore card's Leitner box before the review
+     * @param boxAfter card's Leitner box after the review
+     */
+    public Review(int cardId, int reviewDay, long reviewedAt, boolean passed, int boxBefore, int boxAfter) {
+        this.cardId = cardId;
+        this.reviewDay = reviewDay;
+        this.reviewedAt = reviewedAt;
+        this.passed = passed;
+        this.boxBefore = boxBefore;
+        this.boxAfter = boxAfter;
+    }
+
+    /**
+     * Get reviewed card's ID
+     * @return card ID
+     */
+    public int getCardId() { return cardId; }
+
+    /**
+     * Get date of the review
+     * @return review date (epoch day)
+     */
+    public int getReviewDay() { return reviewDay; }
+
+    /**
+     * Get time of the review
+     * @return review time (epoch milliseconds)
+     */
+    public long getReviewedAt() { return reviewedAt; }
+
+    /**
+     * Get review result
+     * @return true for Pass, false for Fail
+     */
+    public boolean isPassed() { return passed; }
+
+    /**
+     * Get card's Leitner box before the review
+     * @return Leitner box
+     */
+    public int getBoxBefore() { return boxBefore; }
+
+    /**
+     * Get card's Leitner box after the review
+     * @return Leitner box
+     */
+    public int getBoxAfter() { return boxAfter; }
+}
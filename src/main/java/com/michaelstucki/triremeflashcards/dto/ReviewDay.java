@@ -0,0 +1,58 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.time.LocalDate;
+
+/**
+ * ReviewDay POJO: a deck's review totals for one day (a row of the daily review aggregate)
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class ReviewDay {
+    private final int day;
+    private final int reviews;
+    private final int passes;
+
+    /**
+     * ReviewDay constructor
+     * @param day date (epoch day)
+     * @param reviews number of reviews that day
+     * @param passes number of those reviews that were passed
+     */
+    public ReviewDay(int day, int reviews, int passes) {
+        this.day = day;
+        this.reviews = reviews;
+        this.passes = passes;
+    }
+
+    /**
+     * Get date
+     * @return date (epoch day)
+     */
+    public int getDay() { return day; }
+
+    /**
+     * Get number of reviews
+     * @return number of reviews
+     */
+    public int getReviews() { return reviews; }
+
+    /**
+     * Get number of passed reviews
+     * @return number of passes
+     */
+    public int getPasses() { return passes; }
+
+    /**
+     * Get fraction of reviews passed (retention)
+     * @return passes / reviews (0 if there were no reviews)
+     */
+    public double getRetention() { return reviews == 0 ? 0 : (double) passes / reviews; }
+
+    /**
+     * Review day string representation
+     * @return date and counts
+     */
+    @Override
+    public String toString() { return LocalDate.ofEpochDay(day) + ": " + passes + "/" + reviews + " passed"; }
+}
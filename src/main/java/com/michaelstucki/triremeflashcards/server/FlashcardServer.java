@@ -0,0 +1,319 @@
+package com.michaelstucki.triremeflashcards.server;
+
+import com.michaelstucki.triremeflashcards.dao.Dao;
+import com.michaelstucki.triremeflashcards.dao.DaoSQLite;
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Deck;
+import com.michaelstucki.triremeflashcards.dto.DeckSummary;
+import com.michaelstucki.triremeflashcards.dto.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless HTTP service: the app's users, decks, cards, and drills as a JSON API (no JavaFX)
+ * Each request runs on its own virtual thread. Signing in opens a Dao session for the learner and returns
+ * a token that later requests send as {@code Authorization: Bearer <token>}.
+ * <pre>
+ * POST /users                      {"username", "password", "securityAnswer"}  create an account
+ * POST /login                      {"username", "password"}  returns {"token"}
+ * POST /logout                     end the session
+ * GET  /decks                      deck summaries
+ * POST /decks                      {"name"}  add a deck
+ * GET  /decks/{deck}/cards         the deck's cards
+ * POST /decks/{deck}/cards         {"front", "back"}  add a card
+ * GET  /decks/{deck}/next          next card of the deck's drill (204 if none is due)
+ * POST /decks/{deck}/review        {"cardId", "result": "pass" | "fail"}  review the next card
+ * </pre>
+ * The port is the first argument, or the system property {@code trireme.server.port} (default 8080).
+ * A session that serves no request for {@code trireme.server.sessionIdleMinutes} (default 30) is ended.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class FlashcardServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_IDLE_MINUTES = 30;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private final Map<String, LearnerSession> sessions = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long idleNanos;
+
+    static {
+        // Without TCP_NODELAY, small responses wait out the client's delayed ACK (about 40 ms per request)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * FlashcardServer constructor (the server is started with start())
+     * @param port TCP port to listen on (0 for any free port)
+     * @throws IOException if the port cannot be bound
+     */
+    public FlashcardServer(int port) throws IOException {
+        this(port, Duration.ofMinutes(Integer.getInteger("trireme.server.sessionIdleMinutes", DEFAULT_IDLE_MINUTES)));
+    }
+
+    /**
+     * FlashcardServer constructor (the server is started with start())
+     * @param port TCP port to listen on (0 for any free port)
+     * @param idleTimeout time after which a session that serves no request is ended
+     * @throws IOException if the port cannot be bound
+     */
+    public FlashcardServer(int port, Duration idleTimeout) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        idleNanos = idleTimeout.toNanos();
+        // Sweeping at half the timeout ends a session at most 1.5 timeouts after its last request
+        long period = Math.max(1, idleNanos / 2);
+        sweeper.scheduleAtFixedRate(this::expireIdleSessions, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Start accepting requests
+     */
+    public void start() { server.start(); }
+
+    /**
+     * Get the port the server listens on
+     * @return TCP port
+     */
+    public int getPort() { return server.getAddress().getPort(); }
+
+    /**
+     * Stop the server, end all sessions, and close the database
+     */
+    public void stop() {
+        sweeper.shutdownNow();
+        server.stop(1);
+        executor.close();
+        sessions.values().forEach(LearnerSession::close);
+        sessions.clear();
+        DaoSQLite.getDao().close();
+    }
+
+    /**
+     * main method
+     * @param args optional port
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("trireme.server.port", DEFAULT_PORT);
+        FlashcardServer flashcardServer = new FlashcardServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(flashcardServer::stop, "server-shutdown"));
+        flashcardServer.start();
+        System.out.println("Flashcard service listening on port " + flashcardServer.getPort());
+    }
+
+    // Route a request and send its response
+    private void handle(HttpExchange exchange) throws IOException {
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (IllegalArgumentException e) {
+            response = new Response(400, Json.object("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            System.out.println("Server error: " + e);
+            response = new Response(500, Json.object("error", "internal error"));
+        }
+        try (exchange) {
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+            } else {
+                byte[] body = response.body.json().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(response.status, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            }
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        List<String> path = segments(exchange.getRequestURI().getRawPath());
+        if (path.equals(List.of("users")) && method.equals("POST")) return createUser(body(exchange));
+        if (path.equals(List.of("login")) && method.equals("POST")) return login(body(exchange));
+
+        String token = bearerToken(exchange);
+        // Touched under the map's lock for the token, so the sweeper cannot end a session a request has found
+        LearnerSession session = token == null ? null : sessions.computeIfPresent(token, (key, found) -> {
+            found.touch();
+            return found;
+        });
+        if (session == null) return new Response(401, Json.object("error", "sign in first"));
+        Dao dao = session.getDao();
+
+        if (path.equals(List.of("logout")) && method.equals("POST")) {
+            if (sessions.remove(token, session)) session.close();
+            return new Response(204, null);
+        }
+        if (path.equals(List.of("decks"))) {
+            if (method.equals("GET")) return new Response(200, summaries(dao.getDeckSummaries()));
+            if (method.equals("POST")) return addDeck(dao, required(body(exchange), "name"));
+        }
+        if (path.size() == 3 && path.get(0).equals("decks")) {
+            String deckName = path.get(1);
+            switch (path.get(2) + " " + method) {
+                case "cards GET": {
+                    Deck deck = dao.getDeck(deckName);
+                    if (deck == null) return notFound(deckName);
+                    return new Response(200, Json.array(deck.getCards().toList().stream().map(FlashcardServer::card).toList()));
+                }
+                case "cards POST": {
+                    Map<String, String> body = body(exchange);
+                    Deck deck = dao.getDeck(deckName);
+                    if (deck == null) return notFound(deckName);
+                    Card card = dao.addCard(required(body, "front"), required(body, "back"), deck);
+                    return card == null ? new Response(500, Json.object("error", "card not added"))
+                            : new Response(201, card(card));
+                }
+                case "next GET": {
+                    Card card = session.next(deckName);
+                    return card == null ? new Response(204, null) : new Response(200, card(card));
+                }
+                case "review POST": {
+                    Map<String, String> body = body(exchange);
+                    int cardId = Integer.parseInt(required(body, "cardId"));
+                    String result = required(body, "result");
+                    if (!result.equals("pass") && !result.equals("fail")) {
+                        throw new IllegalArgumentException("result must be pass or fail");
+                    }
+                    Card card = session.review(deckName, cardId, result.equals("pass"));
+                    return card == null ? new Response(409, Json.object("error", "card " + cardId + " is not next"))
+                            : new Response(200, card(card));
+                }
+                default:
+                    break;
+            }
+        }
+        return new Response(404, Json.object("error", "no such resource"));
+    }
+
+    private Response createUser(Map<String, String> body) {
+        String username = required(body, "username");
+        String password = required(body, "password");
+        String securityAnswer = required(body, "securityAnswer");
+        DaoSQLite dao = DaoSQLite.openSession();
+        try {
+            if (dao.getUser(username) != null) return new Response(409, Json.object("error", "username is taken"));
+            dao.addUser(username, password, securityAnswer);
+            return new Response(201, Json.object("username", username));
+        } finally {
+            dao.logout();
+        }
+    }
+
+    private Response login(Map<String, String> body) {
+        DaoSQLite dao = DaoSQLite.openSession();
+        User user = dao.getUser(required(body, "username"));
+        if (user == null || !user.getPassword().equals(required(body, "password"))) {
+            dao.logout();
+            return new Response(401, Json.object("error", "unrecognized username or password"));
+        }
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        String token = HexFormat.of().formatHex(bytes);
+        sessions.put(token, new LearnerSession(dao));
+        return new Response(200, Json.object("token", token));
+    }
+
+    // End sessions that have served no request within the idle timeout
+    private void expireIdleSessions() {
+        for (String token : sessions.keySet()) {
+            LearnerSession[] expired = new LearnerSession[1];
+            sessions.computeIfPresent(token, (key, session) -> {
+                if (!session.idleFor(idleNanos)) return session;
+                expired[0] = session;
+                return null;
+            });
+            if (expired[0] != null) expired[0].close();
+        }
+    }
+
+    private static Response addDeck(Dao dao, String deckName) {
+        // The Dao checks for the name and inserts in one step, so concurrent requests cannot both add the deck
+        if (dao.addDeck(new Deck(deckName))) return new Response(201, Json.object("name", deckName));
+        if (dao.getDeckSummaries().stream().anyMatch(summary -> summary.getName().equals(deckName))) {
+            return new Response(409, Json.object("error", "deck " + deckName + " exists"));
+        }
+        return new Response(500, Json.object("error", "deck not added"));
+    }
+
+    private static Response notFound(String deckName) {
+        return new Response(404, Json.object("error", "no deck named " + deckName));
+    }
+
+    private static Json.Raw summaries(List<DeckSummary> summaries) {
+        List<Json.Raw> decks = new ArrayList<>(summaries.size());
+        for (DeckSummary summary : summaries) {
+            decks.add(Json.object("name", summary.getName(), "cards", summary.getCardCount(),
+                    "due", summary.getDueCount(), "lastReviewed", summary.getLastReviewedDate()));
+        }
+        return Json.array(decks);
+    }
+
+    private static Json.Raw card(Card card) {
+        return Json.object("id", card.getId(), "front", card.getFront(), "back", card.getBack(),
+                "box", card.getLeitnerBox(), "target", card.getLeitnerTarget(),
+                "reviews", card.getNumberOfReviews(), "passes", card.getNumberOfPasses(),
+                "due", LocalDate.ofEpochDay(card.getDueDay()).toString());
+    }
+
+    private static Map<String, String> body(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            return Json.parse(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String required(Map<String, String> body, String key) {
+        String value = body.get(key);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(key + " is required");
+        return value;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        return authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()).trim() : null;
+    }
+
+    // Decoded, non-empty path segments
+    private static List<String> segments(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+        }
+        return segments;
+    }
+
+    // Status code and JSON body (null for no body)
+    private record Response(int status, Json.Raw body) {}
+}
@@ -0,0 +1,209 @@
+package com.michaelstucki.triremeflashcards.server;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal JSON support for the HTTP service
+ * Responses are built from flat objects and arrays; request bodies are parsed as flat objects whose
+ * values are strings, numbers, booleans, or null (returned as strings, or null). Parsing is strict:
+ * malformed literals, unknown escapes, unescaped control characters, and trailing text are rejected.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class Json {
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    private Json() {}
+
+    /**
+     * Build a JSON object
+     * @param keysAndValues alternating keys and values; values may be String, Number, Boolean, null,
+     *                      or JSON text produced by object() or array() (passed as a Raw)
+     * @return JSON text
+     */
+    static Raw object(Object... keysAndValues) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (i > 0) json.append(',');
+            appendString(json, (String) keysAndValues[i]);
+            json.append(':');
+            appendValue(json, keysAndValues[i + 1]);
+        }
+        return new Raw(json.append('}').toString());
+    }
+
+    /**
+     * Build a JSON array
+     * @param elements elements (each a value accepted by object())
+     * @return JSON text
+     */
+    static Raw array(List<?> elements) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) json.append(',');
+            appendValue(json, elements.get(i));
+        }
+        return new Raw(json.append(']').toString());
+    }
+
+    /**
+     * Parse a flat JSON object
+     * @param text JSON text
+     * @return keys and values (numbers and booleans as their JSON text, null as null)
+     * @throws IllegalArgumentException if the text is not a flat JSON object
+     */
+    static Map<String, String> parse(String text) {
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        Map<String, String> values = parser.object();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) throw new IllegalArgumentException("unexpected text after JSON object");
+        return values;
+    }
+
+    /**
+     * JSON text that is embedded as is
+     * @param json JSON text
+     */
+    record Raw(String json) {
+        @Override
+        public String toString() { return json; }
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Raw) {
+            json.append(value);
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    // Recursive-descent parser for one flat object
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        private Parser(String text) { this.text = text; }
+
+        private Map<String, String> object() {
+            Map<String, String> values = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return values;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                values.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    return values;
+                }
+            }
+        }
+
+        private String value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '{' || c == '[') throw new IllegalArgumentException("nested JSON values are not supported");
+            int start = position;
+            while (position < text.length() && ",} \t\r\n".indexOf(text.charAt(position)) < 0) position++;
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) throw new IllegalArgumentException("missing JSON value");
+            if (literal.equals("null")) return null;
+            if (!literal.equals("true") && !literal.equals("false") && !NUMBER.matcher(literal).matches()) {
+                throw new IllegalArgumentException("bad JSON value " + literal);
+            }
+            return literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return value.toString();
+                if (c < 0x20) throw new IllegalArgumentException("unescaped control character in JSON string");
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case '"', '\\', '/' -> value.append(escaped);
+                    case 'u' -> {
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            char hex = next();
+                            int digit = hex < 128 ? Character.digit(hex, 16) : -1;
+                            if (digit < 0) throw new IllegalArgumentException("bad JSON escape");
+                            code = code << 4 | digit;
+                        }
+                        value.append((char) code);
+                    }
+                    default -> throw new IllegalArgumentException("bad JSON escape \\" + escaped);
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && " \t\r\n".indexOf(text.charAt(position)) >= 0) position++;
+        }
+
+        private char peek() {
+            if (position >= text.length()) throw new IllegalArgumentException("unexpected end of JSON");
+            return text.charAt(position);
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c) throw new IllegalArgumentException("expected '" + c + "' in JSON");
+        }
+    }
+}
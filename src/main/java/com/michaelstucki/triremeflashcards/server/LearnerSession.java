@@ -0,0 +1,104 @@
+package com.michaelstucki.triremeflashcards.server;
+
+import com.michaelstucki.triremeflashcards.dao.Dao;
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Deck;
+import com.michaelstucki.triremeflashcards.util.LeitnerScheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A signed-in learner of the HTTP service: the learner's Dao session and drill queues
+ * A drill works like the drill UI: the deck's due cards are shuffled into a queue, a passed card leaves
+ * the queue, and a failed card goes to the back of it. Reviews are buffered by the Dao.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+final class LearnerSession {
+    // Cards loaded into a drill queue at a time (the queue is refilled when it runs out)
+    private static final int DRILL_BATCH = 200;
+    private final Dao dao;
+    // Drill queue per deck name (each guarded by its own monitor)
+    private final Map<String, Deque<Card>> drills = new ConcurrentHashMap<>();
+    // When the session last served a request (System.nanoTime)
+    private volatile long lastUsed = System.nanoTime();
+
+    /**
+     * LearnerSession constructor
+     * @param dao Dao session with the learner signed in
+     */
+    LearnerSession(Dao dao) { this.dao = dao; }
+
+    /**
+     * Get the learner's Dao session
+     * @return Dao instance
+     */
+    Dao getDao() { return dao; }
+
+    /**
+     * Record that the session is serving a request
+     */
+    void touch() { lastUsed = System.nanoTime(); }
+
+    /**
+     * Check whether the session has served no request for a while
+     * @param nanos idle time in nanoseconds
+     * @return true if the session has been idle for longer than nanos
+     */
+    boolean idleFor(long nanos) { return System.nanoTime() - lastUsed > nanos; }
+
+    /**
+     * Get the card to review next in a deck's drill
+     * @param deckName deck name
+     * @return next Card instance, or null if no card of the deck is due
+     */
+    Card next(String deckName) {
+        Deque<Card> queue = drills.computeIfAbsent(deckName, name -> new ArrayDeque<>());
+        synchronized (queue) {
+            if (queue.isEmpty()) {
+                List<Card> due = new ArrayList<>(dao.getDueCards(new Deck(deckName), today(), DRILL_BATCH));
+                Collections.shuffle(due);
+                queue.addAll(due);
+            }
+            return queue.peekFirst();
+        }
+    }
+
+    /**
+     * Pass or fail the card at the head of a deck's drill
+     * @param deckName deck name
+     * @param cardId ID of the card being reviewed (must be the card next() returned)
+     * @param passed true for Pass, false for Fail
+     * @return the reviewed Card instance, or null if the card is not the one due for review
+     */
+    Card review(String deckName, int cardId, boolean passed) {
+        Deque<Card> queue = drills.get(deckName);
+        if (queue == null) return null;
+        synchronized (queue) {
+            Card card = queue.peekFirst();
+            if (card == null || card.getId() != cardId) return null;
+            queue.pollFirst();
+            if (!passed) queue.addLast(card);
+            dao.queueReview(card, LeitnerScheduler.review(card, passed, today()));
+            return card;
+        }
+    }
+
+    /**
+     * End the session (drills are dropped; buffered reviews are written)
+     */
+    void close() {
+        drills.clear();
+        dao.logout();
+    }
+
+    private static int today() { return (int) LocalDate.now().toEpochDay(); }
+}
@@ -0,0 +1,98 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import com.michaelstucki.triremeflashcards.dao.Dao;
+import javafx.concurrent.Task;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background task that exports one deck, or all of the user's decks, to a delimited file
+ * Cards are streamed from the database (Dao.forEachCard) straight into a buffered file channel, so memory
+ * use stays flat however many cards are exported. A .gz file name produces a gzip-compressed archive.
+ * The file is written to a temporary file beside the target and renamed over it only once complete,
+ * so the target is never left half-written. A failed read, or a card count that does not match the
+ * deck's, fails the task and leaves the target as it was. The task's value is the number of cards exported.
+ * Each record holds: front, back, Leitner box, Leitner target, creation date, reviewed date, due date,
+ * number of reviews, number of passes, deck name (so an export can be imported back with DeckImportTask).
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class DeckExportTask extends Task<Integer> {
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_INTERVAL = 1000;
+    private final Dao dao;
+    private final String deckName;
+    private final Path file;
+    private int exported;
+
+    /**
+     * DeckExportTask constructor
+     * @param dao Dao used to read the cards
+     * @param deckName deck to export, or null to export all of the user's decks
+     * @param file CSV or TSV file, optionally .gz (delimiter chosen by file extension)
+     */
+    public DeckExportTask(Dao dao, String deckName, Path file) {
+        this.dao = dao;
+        this.deckName = deckName;
+        this.file = file;
+    }
+
+    @Override
+    protected Integer call() throws IOException {
+        String fileName = file.getFileName().toString();
+        char delimiter = DelimitedReader.delimiterFor(fileName);
+        int total = dao.countCards(deckName);
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "." + fileName, ".tmp");
+        try {
+            OutputStream output = Channels.newOutputStream(FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING));
+            if (DelimitedReader.isCompressed(fileName)) output = new GZIPOutputStream(output, WRITE_BUFFER_SIZE);
+            try (DelimitedWriter writer = new DelimitedWriter(new BufferedWriter(
+                    new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE), delimiter)) {
+                exported = 0;
+                dao.forEachCard(deckName, (name, card) -> {
+                    if (isCancelled()) throw new CancellationException();
+                    try {
+                        writer.writeRecord(card.getFront(), card.getBack(),
+                                String.valueOf(card.getLeitnerBox()), String.valueOf(card.getLeitnerTarget()),
+                                isoDate(card.getCreationDay()), isoDate(card.getReviewedDay()),
+                                isoDate(card.getDueDay()),
+                                String.valueOf(card.getNumberOfReviews()),
+                                String.valueOf(card.getNumberOfPasses()), name);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++exported % PROGRESS_INTERVAL == 0) updateProgress(exported, total);
+                });
+            }
+            // Never replace the target with a short export
+            if (exported != total) throw new IOException("exported " + exported + " of " + total + " cards");
+            // Make the content durable before the rename makes it visible
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        updateProgress(total, total);
+        return exported;
+    }
+
+    // Card dates are epoch days; exports carry them as ISO dates (yyyy-MM-dd)
+    private static String isoDate(int epochDay) { return LocalDate.ofEpochDay(epochDay).toString(); }
+}
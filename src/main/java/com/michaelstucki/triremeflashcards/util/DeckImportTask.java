@@ -0,0 +1,105 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import com.michaelstucki.triremeflashcards.dao.Dao;
+import javafx.concurrent.Task;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Background task that streams a delimited file (CSV or TSV, UTF-8, optionally gzip-compressed) into a deck
+ * Each record's first field is the card's front and its second field the card's back; records with
+ * fewer than two fields or an empty front are skipped. Cards are inserted in batches of BATCH_SIZE,
+ * one transaction per batch, straight into the database: no Card or Deck instances are made, so the
+ * task's memory use does not grow with the file. A loaded copy of the deck is dropped from the decks
+ * model and reloaded with the new cards the next time it is opened.
+ * Progress is reported as the fraction of the file read; cancelling stops after the current batch
+ * (batches already committed are kept). The task's value is the number of cards imported.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public class DeckImportTask extends Task<Integer> {
+    private static final int BATCH_SIZE = 1000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private final Dao dao;
+    private final String deckName;
+    private final Path file;
+
+    /**
+     * DeckImportTask constructor
+     * @param dao Dao used to insert the cards
+     * @param deckName name of the deck the cards are added to
+     * @param file CSV or TSV file, optionally .gz (delimiter chosen by file extension)
+     */
+    public DeckImportTask(Dao dao, String deckName, Path file) {
+        this.dao = dao;
+        this.deckName = deckName;
+        this.file = file;
+    }
+
+    @Override
+    protected Integer call() throws IOException {
+        long size = Files.size(file);
+        String fileName = file.getFileName().toString();
+        char delimiter = DelimitedReader.delimiterFor(fileName);
+        int imported = 0;
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+             DelimitedReader reader = new DelimitedReader(new BufferedReader(new InputStreamReader(
+                     DelimitedReader.isCompressed(fileName) ? new GZIPInputStream(input, READ_BUFFER_SIZE) : input,
+                     StandardCharsets.UTF_8), READ_BUFFER_SIZE), delimiter)) {
+            List<Map.Entry<String, String>> batch = new ArrayList<>(BATCH_SIZE);
+            List<String> record;
+            while (!isCancelled() && (record = reader.readRecord()) != null) {
+                if (record.size() < 2 || record.get(0).isBlank()) continue;
+                batch.add(Map.entry(record.get(0), record.get(1)));
+                if (batch.size() == BATCH_SIZE) {
+                    imported += insert(batch);
+                    updateProgress(input.getCount(), size);
+                    updateMessage(imported + " cards imported");
+                }
+            }
+            if (!isCancelled() && !batch.isEmpty()) imported += insert(batch);
+        }
+        updateProgress(size, size);
+        updateMessage(imported + " cards imported");
+        return imported;
+    }
+
+    // Insert one batch in a single transaction and start the next batch
+    private int insert(List<Map.Entry<String, String>> batch) throws IOException {
+        int added = dao.importCards(deckName, batch);
+        if (added != batch.size()) throw new IOException("database rejected a batch of cards");
+        batch.clear();
+        return added;
+    }
+
+    // Counts bytes read so progress can be reported against the file size
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) { super(in); }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        private long getCount() { return count; }
+    }
+}
@@ -0,0 +1,131 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of delimited text (CSV, TSV)
+ * Reads one record at a time, so memory use does not depend on the size of the input.
+ * Fields may be quoted with double quotes; quoted fields may contain delimiters, line breaks,
+ * and doubled quotes ("") standing for a quote; a closing quote must be followed by a delimiter or the
+ * end of the record. A quote inside an unquoted field is kept as text. Records end at LF, CRLF, or CR.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class DelimitedReader implements Closeable {
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+    private final Reader reader;
+    private final char delimiter;
+    private final StringBuilder field = new StringBuilder();
+    // One character of look-ahead (-2 when empty)
+    private int peeked = -2;
+    private boolean started;
+    // Number of the record being read (1-based), for error messages
+    private long record;
+
+    /**
+     * DelimitedReader constructor
+     * @param reader source of text (should be buffered)
+     * @param delimiter field delimiter, e.g. ',' or '\t'
+     */
+    public DelimitedReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Get the field delimiter that suits a file name: tab for .tsv and .tab files, comma otherwise
+     * (a trailing .gz is ignored)
+     * @param fileName file name
+     * @return field delimiter
+     */
+    public static char delimiterFor(String fileName) {
+        String name = fileName.toLowerCase();
+        if (isCompressed(name)) name = name.substring(0, name.length() - ".gz".length());
+        return name.endsWith(".tsv") || name.endsWith(".tab") ? '\t' : ',';
+    }
+
+    /**
+     * Determine whether a file name denotes a gzip-compressed archive
+     * @param fileName file name
+     * @return true for .gz files
+     */
+    public static boolean isCompressed(String fileName) {
+        return fileName.toLowerCase().endsWith(".gz");
+    }
+
+    /**
+     * Read the next record
+     * @return the record's fields, or null at end of input
+     * @throws IOException if the input cannot be read, ends inside a quoted field, or has text after a
+     * closing quote
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == BYTE_ORDER_MARK) c = read();
+        }
+        if (c == -1) return null;
+        record++;
+
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("record " + record + ": unterminated quoted field");
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else if (next != delimiter && next != '\n' && next != '\r' && next != -1) {
+                        throw new IOException("record " + record + ": unexpected '" + (char) next +
+                                "' after closing quote");
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') peeked = next;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    /**
+     * Close the underlying reader
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException { reader.close(); }
+}
@@ -0,0 +1,69 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of delimited text (CSV, TSV) readable by DelimitedReader
+ * Fields containing the delimiter, a quote, or a line break are quoted, with quotes doubled.
+ * Records end with LF.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class DelimitedWriter implements Closeable {
+    private final Writer writer;
+    private final char delimiter;
+
+    /**
+     * DelimitedWriter constructor
+     * @param writer destination of text (should be buffered)
+     * @param delimiter field delimiter, e.g. ',' or '\t'
+     */
+    public DelimitedWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Write one record
+     * @param fields the record's fields (null is written as an empty field)
+     * @throws IOException if the output cannot be written
+     */
+    public void writeRecord(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) writer.write(delimiter);
+            writeField(fields[i] == null ? "" : fields[i]);
+        }
+        writer.write('\n');
+    }
+
+    private void writeField(String field) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(field);
+        } else {
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Flush the underlying writer
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException { writer.flush(); }
+
+    /**
+     * Close the underlying writer
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException { writer.close(); }
+}
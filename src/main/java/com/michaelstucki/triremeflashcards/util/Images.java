@@ -0,0 +1,40 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import javafx.scene.image.Image;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoded images of the app's image resources, each decoded once and shared by every UI that shows it
+ * An image may be decoded on any thread (startup decodes them in the background). A caller asking for an
+ * image that another thread is decoding waits for that decode rather than starting its own.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class Images {
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    private Images() {}
+
+    /**
+     * Get an image, decoding it the first time
+     * @param path resource path of the image, e.g. /images/trireme.png
+     * @return Image instance
+     * @throws UncheckedIOException if the resource cannot be read
+     */
+    public static Image get(String path) { return IMAGES.computeIfAbsent(path, Images::decode); }
+
+    // Decode an image resource (synchronously, on the calling thread)
+    private static Image decode(String path) {
+        try (InputStream input = Objects.requireNonNull(Images.class.getResourceAsStream(path), path)) {
+            return new Image(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read image " + path, e);
+        }
+    }
+}
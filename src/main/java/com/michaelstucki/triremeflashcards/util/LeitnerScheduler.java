@@ -0,0 +1,52 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Review;
+
+/**
+ * Leitner box spaced-repetition scheduler, shared by the drill UI and the HTTP service
+ * Each box in the series doubles the duration between reviews (1, 2, 4, 8,... days). A passed card
+ * recapitulates the lower boxes up to its target box before the target advances; a failed card goes
+ * back to the first box and is due again tomorrow.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class LeitnerScheduler {
+    private LeitnerScheduler() {}
+
+    /**
+     * Apply a Pass or Fail to a card: update its box, target, counts, and reviewed and due dates
+     * @param card reviewed Card instance (updated in place)
+     * @param passed true for Pass, false for Fail
+     * @param today today's date (epoch day)
+     * @return the review's log entry
+     */
+    public static Review review(Card card, boolean passed, int today) {
+        int boxBefore = card.getLeitnerBox();
+        card.setNumberOfReviews(card.getNumberOfReviews() + 1);
+        card.setReviewedDay(today);
+        if (passed) {
+            card.setNumberOfPasses(card.getNumberOfPasses() + 1);
+            int leitnerBox = card.getLeitnerBox();
+            leitnerBox++;
+            int leitnerTarget = card.getLeitnerTarget();
+            // Recapitulate lower boxes up to the current target before advancing the target
+            if (leitnerBox > leitnerTarget) {
+                leitnerTarget = leitnerBox;
+                leitnerBox = 0;
+                card.setLeitnerBox(leitnerBox);
+                card.setLeitnerTarget(leitnerTarget);
+            } else {
+                card.setLeitnerBox(leitnerBox);
+            }
+            int daysToAdd = 1 << leitnerBox;
+            card.setDueDay(today + daysToAdd);
+        } else {
+            card.setLeitnerBox(0);
+            card.setLeitnerTarget(0);
+            card.setDueDay(today + 1);
+        }
+        return new Review(card.getId(), today, System.currentTimeMillis(), passed, boxBefore, card.getLeitnerBox());
+    }
+}
@@ -6,18 +6,28 @@ import com.michaelstucki.triremeflashcards.controller.ControllerCards;
 import com.michaelstucki.triremeflashcards.controller.ControllerDecks;
 import com.michaelstucki.triremeflashcards.controller.ControllerDrills;
 import com.michaelstucki.triremeflashcards.controller.ControllerHome;
+import com.michaelstucki.triremeflashcards.controller.FxmlViews;
+import com.michaelstucki.triremeflashcards.dao.AsyncDao;
 import com.michaelstucki.triremeflashcards.dto.Deck;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * SceneManager Singleton to create scenes and present them
- * It runs FXMLLoader once for each UI and caches their associated scenes and
- * FXMLLoader references for select UIs to give access to their controller references.
+ * It builds each UI once and caches its scene and its controller. UIs are built by the view builders
+ * generated from the FXML files at build time (FxmlViews); FXMLLoader loads any FXML file that has none.
+ * A UI is loaded when it is first shown, unless it was prewarmed: loaded ahead of time on a
+ * background thread (scene graphs may be built off the JavaFX thread until they are shown).
  * @author Michael Stucki
  * @version 1.0
  * @since 2025-09-21
@@ -28,8 +38,16 @@ public final class SceneManager {
 
     // Cache of UI scenes
     private final Map<String, Scene> sceneCache = new HashMap<>();
-    // Cache of UI FXMLLoaders
-    private final Map<String, FXMLLoader> loaderCache = new HashMap<>();
+    // Cache of UI controllers
+    private final Map<String, Object> controllerCache = new HashMap<>();
+    // UIs being loaded in the background, not yet taken into the caches (the caches are used on the JavaFX thread only)
+    private final Map<String, CompletableFuture<LoadedView>> prewarming = new ConcurrentHashMap<>();
+    // One background loader, so prewarming follows the order asked for
+    private final ExecutorService prewarmer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scene-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
     private final static SceneManager SCENE_MANAGER = new SceneManager();
     // The deck of interest selected in Decks UI and shared with Cards UI (and elsewhere as needed)
     private Deck sharedDeck = new Deck("");
@@ -56,43 +74,99 @@ public final class SceneManager {
     public void setSharedDeck(Deck sharedDeck) { this.sharedDeck = sharedDeck; }
 
     /**
-     * Create, cache, and present UI scenes and FXMLLoaders (to make app responsive to scene changes)
-     * @param fxmlPath full path to .fxml files defined in @{Constants} class and passed in here by main
+     * Present a UI, creating and caching its scene and controller the first time (to make app responsive
+     * to scene changes)
+     * @param fxmlPath full path to .fxml files defined in @{Constants} class
      */
     public void showView(String fxmlPath) {
-        try {
-            if (sceneCache.containsKey(fxmlPath)) {
-                FXMLLoader loader = loaderCache.get(fxmlPath);
-                // invoke controller init() only if FXMLLoader has been run
-                if (fxmlPath.contains("cards")) {
-                    ControllerCards controller = loader.getController();
-                    controller.init(sharedDeck);
-                } else if (fxmlPath.contains("drills")) {
-                    ControllerDrills controller = loader.getController();
-                    controller.init(sharedDeck);
-                } else if (fxmlPath.contains("decks")) {
-                    ControllerDecks controller = loader.getController();
-                    controller.init();
-                } else if (fxmlPath.contains("home")) {
-                    ControllerHome controller = loader.getController();
-                    controller.init();
-                }
-                Scene scene = sceneCache.get(fxmlPath);
-                stage.setScene(scene);
-            } else {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-                Scene scene = new Scene(loader.load(), width, height);
-                sceneCache.put(fxmlPath, scene);
-                loaderCache.put(fxmlPath, loader);
+        if (!sceneCache.containsKey(fxmlPath) && !cacheView(fxmlPath)) return;
+        Object controller = controllerCache.get(fxmlPath);
+        if (fxmlPath.contains("cards")) {
+            ((ControllerCards) controller).init(sharedDeck);
+        } else if (fxmlPath.contains("drills")) {
+            ((ControllerDrills) controller).init(sharedDeck);
+        } else if (fxmlPath.contains("decks")) {
+            ((ControllerDecks) controller).init();
+        } else if (fxmlPath.contains("home")) {
+            ((ControllerHome) controller).init();
+        }
+        Scene scene = sceneCache.get(fxmlPath);
+        stage.setScene(scene);
+    }
+
+    /**
+     * Load a UI in the background so that showing it later does not wait on its construction
+     * UIs are loaded one at a time, in the order prewarm() is called.
+     * @param fxmlPath full path to .fxml files defined in @{Constants} class
+     */
+    public void prewarm(String fxmlPath) {
+        if (sceneCache.containsKey(fxmlPath)) return;
+        prewarming.computeIfAbsent(fxmlPath, path -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return load(path);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, prewarmer));
+    }
+
+    // Cache a UI's scene and controller: take a prewarmed load (waiting for it if it is under way), or load it now
+    private boolean cacheView(String fxmlPath) {
+        LoadedView view = null;
+        CompletableFuture<LoadedView> prewarmed = prewarming.remove(fxmlPath);
+        if (prewarmed != null) {
+            try {
+                view = prewarmed.join();
+            } catch (CompletionException e) {
+                // e.g. a control that must be created on the JavaFX thread: load it here instead
+                System.out.println("Prewarming " + fxmlPath + " failed: " + e.getCause());
             }
+        }
+        try {
+            if (view == null) view = load(fxmlPath);
         } catch (IOException e) {
             System.out.println(e.getMessage());
+            return false;
         }
+        sceneCache.put(fxmlPath, view.scene);
+        controllerCache.put(fxmlPath, view.controller);
+        return true;
+    }
+
+    // Build the UI with its generated view builder, or with FXMLLoader if it has none, and create its scene (timed)
+    private LoadedView load(String fxmlPath) throws IOException {
+        long start = System.nanoTime();
+        FxmlViews.View view = FxmlViews.build(fxmlPath);
+        Parent root;
+        Object controller;
+        String builtBy;
+        if (view != null) {
+            root = view.root();
+            controller = view.controller();
+            builtBy = "generated builder";
+        } else {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
+            root = loader.load();
+            controller = loader.getController();
+            builtBy = "FXMLLoader";
+        }
+        Scene scene = new Scene(root, width, height);
+        if (verbose) {
+            System.out.printf("Loaded %s in %.1f ms on %s (%s)%n", fxmlPath, (System.nanoTime() - start) / 1e6,
+                    Thread.currentThread().getName(), builtBy);
+        }
+        return new LoadedView(scene, controller);
     }
 
     /**
-     * Exit app
+     * Exit app (finishes queued database calls and closes the database connection)
      */
-    public void exit() { stage.close(); }
-}
+    public void exit() {
+        prewarmer.shutdownNow();
+        AsyncDao.getAsyncDao().close();
+        stage.close();
+    }
 
+    // A loaded UI: its scene and its controller
+    private record LoadedView(Scene scene, Object controller) {}
+}
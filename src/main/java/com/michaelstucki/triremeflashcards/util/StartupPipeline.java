@@ -0,0 +1,109 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import static com.michaelstucki.triremeflashcards.constants.Constants.verbose;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup tasks as a small dependency graph, each task timed from the start of the app
+ * Tasks that do not touch the scene graph (font loading, image decoding, ...) run on background startup
+ * threads; the JavaFX thread runs its own phases and waits, with await(), only for the tasks the first
+ * frame needs. Failed tasks are always logged; in verbose mode (see Constants.verbose) every task and
+ * wait is logged with its duration and the time since startup.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class StartupPipeline {
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    // Two threads: the tasks are short and partly I/O bound, and the JavaFX thread is busy alongside them
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "startup-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Start a task on a startup thread
+     * @param name task name (for the log)
+     * @param task work to do
+     * @return completion of the task
+     */
+    public CompletableFuture<Void> task(String name, Runnable task) {
+        return CompletableFuture.runAsync(() -> phase(name, task), executor);
+    }
+
+    /**
+     * Time a task already running elsewhere (e.g. on the database worker) from now until it finishes
+     * @param name task name (for the log)
+     * @param task completion of the task
+     * @return the same completion
+     * @param <T> result type
+     */
+    public <T> CompletableFuture<T> track(String name, CompletableFuture<T> task) {
+        long started = System.nanoTime();
+        task.whenComplete((result, failure) -> log(name, started, failure));
+        return task;
+    }
+
+    /**
+     * Run a phase on the calling thread (typically the JavaFX thread) and time it
+     * @param name phase name (for the log)
+     * @param phase work to do
+     */
+    public void phase(String name, Runnable phase) {
+        long started = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            phase.run();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            log(name, started, failure);
+        }
+    }
+
+    /**
+     * Wait for a task the calling thread depends on (a failed task is logged, not rethrown)
+     * @param name what is waited for (for the log)
+     * @param task completion of the task
+     */
+    public void await(String name, CompletableFuture<?> task) {
+        long started = System.nanoTime();
+        try {
+            task.join();
+        } catch (RuntimeException e) {
+            // The task logged its own failure; starting up without it beats not starting up
+        }
+        if (verbose) System.out.printf("Startup: waited %.1f ms for %s%n", millis(System.nanoTime() - started), name);
+    }
+
+    /**
+     * Log a milestone (e.g. the first frame) with the time since startup
+     * @param name milestone name
+     */
+    public void milestone(String name) {
+        if (verbose) System.out.printf("Startup: %s at %.1f ms%n", name, millis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Release the startup threads once the queued tasks finish
+     */
+    public void shutdown() { executor.shutdown(); }
+
+    private void log(String name, long started, Throwable failure) {
+        // Failures are always reported; timings only in verbose mode
+        if (!verbose && failure == null) return;
+        long now = System.nanoTime();
+        System.out.printf("Startup: %s %s in %.1f ms (done at %.1f ms)%n", name,
+                failure == null ? "finished" : "failed (" + failure.getMessage() + ")",
+                millis(now - started), millis(now - startNanos));
+    }
+
+    private static double millis(long nanos) { return nanos / 1_000_000.0; }
+}
@@ -3,6 +3,7 @@ module com.michaelstucki.triremeflashcards {
         requires javafx.fxml;
         requires java.desktop;
         requires java.sql;
+        requires jdk.httpserver;
 
         opens com.michaelstucki.triremeflashcards to javafx.fxml;
         exports com.michaelstucki.triremeflashcards;
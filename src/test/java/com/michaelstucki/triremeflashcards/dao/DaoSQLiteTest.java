@@ -0,0 +1,211 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Deck;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DaoSQLite tests against a fresh database in a temporary directory, with one user signed in
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class DaoSQLiteTest {
+    @TempDir
+    Path directory;
+    private DaoSQLite dao;
+
+    @BeforeEach
+    void open() {
+        dao = new DaoSQLite(url());
+        dao.addUser("ann", "password", "blue");
+        assertNotNull(dao.getUser("ann"));
+    }
+
+    @AfterEach
+    void close() { dao.close(); }
+
+    @Test
+    void importCardsLeavesLoadedDeckAloneAndDropsItFromCache() {
+        dao.addDeck(new Deck("Greek"));
+        Deck loaded = dao.getDeck("Greek");
+        assertEquals(0, loaded.size());
+
+        int imported = dao.importCards("Greek", List.of(Map.entry("alpha", "a"), Map.entry("beta", "b"),
+                Map.entry("gamma", "g")));
+
+        assertEquals(3, imported);
+        assertEquals(0, loaded.size());
+        Deck reloaded = dao.getDeck("Greek");
+        assertNotSame(loaded, reloaded);
+        assertEquals(3, reloaded.size());
+        assertEquals(3, dao.countCards("Greek"));
+    }
+
+    @Test
+    void importCardsIntoMissingDeckInsertsNothing() {
+        assertEquals(0, dao.importCards("Latin", List.of(Map.entry("amo", "I love"))));
+        assertEquals(0, dao.countCards(null));
+    }
+
+    @Test
+    void forEachCardStreamsEveryCardAndFailsForMissingDeck() {
+        dao.addDeck(new Deck("Greek"));
+        dao.importCards("Greek", List.of(Map.entry("alpha", "a"), Map.entry("beta", "b")));
+        List<String> streamed = new ArrayList<>();
+        dao.forEachCard("Greek", (name, card) -> streamed.add(name + ":" + card.getFront()));
+        assertEquals(List.of("Greek:alpha", "Greek:beta"), streamed);
+
+        assertThrows(DaoException.class, () -> dao.forEachCard("Latin", (name, card) -> fail("no cards expected")));
+    }
+
+    @Test
+    void addDeckCachesDeckOnlyOnceStored() throws SQLException {
+        dao.addDeck(new Deck("Greek"));
+        assertNotNull(dao.getDecks(false).get("Greek"));
+        try (Connection connection = DriverManager.getConnection(url());
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TRIGGER no_decks BEFORE INSERT ON decks BEGIN SELECT RAISE(ABORT, 'full'); END;");
+        }
+
+        dao.addDeck(new Deck("Latin"));
+
+        assertNull(dao.getDecks(false).get("Latin"));
+        assertNull(dao.getDeck("Latin"));
+    }
+
+    @Test
+    void addDeckRefusesNameTheUserAlreadyHas() throws SQLException {
+        assertTrue(dao.addDeck(new Deck("Greek")));
+        Deck cached = dao.getDeck("Greek");
+
+        assertFalse(dao.addDeck(new Deck("Greek")));
+
+        assertSame(cached, dao.getDeck("Greek"));
+        try (Connection connection = DriverManager.getConnection(url());
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM decks WHERE name = 'Greek';")) {
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void unitThatThrowsIsRolledBackAndRethrows() {
+        IllegalStateException thrown = new IllegalStateException("boom");
+        IllegalStateException caught = assertThrows(IllegalStateException.class, () -> dao.inTransaction(() -> {
+            dao.addDeck(new Deck("Greek"));
+            throw thrown;
+        }));
+
+        assertSame(thrown, caught);
+        assertNull(dao.getDecks(false).get("Greek"));
+        assertTrue(dao.inTransaction(() -> dao.addDeck(new Deck("Latin"))));
+        assertNotNull(dao.getDecks(false).get("Latin"));
+    }
+
+    @Test
+    void unitWithFailedCallIsRolledBackAndReportsFalse() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url());
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TRIGGER no_latin BEFORE INSERT ON decks WHEN NEW.name = 'Latin' "
+                    + "BEGIN SELECT RAISE(ABORT, 'no Latin'); END;");
+        }
+
+        boolean committed = dao.inTransaction(() -> {
+            dao.addDeck(new Deck("Greek"));
+            dao.addDeck(new Deck("Latin"));
+        });
+
+        assertFalse(committed);
+        assertTrue(dao.getDecks(false).isEmpty());
+    }
+
+    @Test
+    void innerUnitThatThrowsRollsBackOnlyItself() {
+        boolean committed = dao.inTransaction(() -> {
+            dao.addDeck(new Deck("Greek"));
+            assertThrows(IllegalStateException.class, () -> dao.inTransaction(() -> {
+                dao.addDeck(new Deck("Latin"));
+                throw new IllegalStateException("boom");
+            }));
+            dao.addDeck(new Deck("Hebrew"));
+        });
+
+        assertTrue(committed);
+        Map<String, Deck> stored = dao.getDecks(false);
+        assertEquals(List.of("Greek", "Hebrew"), List.copyOf(stored.keySet()));
+    }
+
+    @Test
+    void searchMatchesEveryWordAndLastWordAsPrefix() {
+        dao.addDeck(new Deck("Greek"));
+        dao.importCards("Greek", List.of(Map.entry("alpha beta", "first letters"), Map.entry("alphabet", "all"),
+                Map.entry("gamma", "third letter")));
+
+        assertEquals(List.of("alpha beta", "alphabet"), fronts(dao.searchCards("alpha", "Greek", 10)));
+        assertEquals(List.of("alpha beta"), fronts(dao.searchCards("alpha   first", "Greek", 10)));
+        assertEquals(List.of("alpha beta", "gamma"), fronts(dao.searchCards("lett", "Greek", 10)));
+        assertEquals(1, dao.searchCards("alpha", "Greek", 1).size());
+        assertTrue(dao.searchCards("  ", "Greek", 10).isEmpty());
+    }
+
+    @Test
+    void searchFoldsCaseAndAccents() {
+        dao.addDeck(new Deck("French"));
+        dao.importCards("French", List.of(Map.entry("Café", "coffee")));
+
+        assertEquals(List.of("Café"), fronts(dao.searchCards("cafe", null, 10)));
+        assertEquals(List.of("Café"), fronts(dao.searchCards("CAFÉ", "French", 10)));
+    }
+
+    @Test
+    void searchTreatsQuerySyntaxAsText() {
+        dao.addDeck(new Deck("Code"));
+        dao.importCards("Code", List.of(Map.entry("say \"hi\" AND bye", "x"), Map.entry("NEAR(a b)", "y")));
+
+        assertEquals(List.of("say \"hi\" AND bye"), fronts(dao.searchCards("\"hi\" AND", "Code", 10)));
+        assertEquals(List.of("NEAR(a b)"), fronts(dao.searchCards("NEAR(a", "Code", 10)));
+        // A query the FTS parser rejected would find nothing
+        for (String query : List.of("-say", "say*", "say:", "(say", "^say", "AND say", "say\"")) {
+            assertEquals(List.of("say \"hi\" AND bye"), fronts(dao.searchCards(query, "Code", 10)), query);
+        }
+    }
+
+    @Test
+    void searchFollowsEditsAndDeletes() {
+        dao.addDeck(new Deck("Greek"));
+        Deck deck = dao.getDeck("Greek");
+        Card card = dao.addCard("alpha", "a", deck);
+        assertEquals(1, dao.searchCards("alpha", "Greek", 10).size());
+
+        card.setFront("omega");
+        dao.updateCard(card);
+        assertTrue(dao.searchCards("alpha", "Greek", 10).isEmpty());
+        assertSame(card, dao.searchCards("omega", "Greek", 10).get(0));
+
+        dao.deleteCard(card.getId(), deck);
+        assertTrue(dao.searchCards("omega", null, 10).isEmpty());
+    }
+
+    private static List<String> fronts(List<Card> cards) {
+        return cards.stream().map(Card::getFront).sorted().toList();
+    }
+
+    private String url() { return "jdbc:sqlite:" + directory.resolve("test.db"); }
+}
@@ -0,0 +1,68 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Deck;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DeckCache tests: least recently used decks are evicted over the card budget, and peek does not count as use
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class DeckCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedDecks() {
+        DeckCache cache = new DeckCache(10);
+        cache.put(deck("a", 4));
+        cache.put(deck("b", 4));
+        assertNotNull(cache.get("a"));
+        cache.put(deck("c", 4));
+        assertNull(cache.peek("b"));
+        assertNotNull(cache.peek("a"));
+        assertNotNull(cache.peek("c"));
+    }
+
+    @Test
+    void peekDoesNotCountAsUse() {
+        DeckCache cache = new DeckCache(10);
+        cache.put(deck("a", 4));
+        cache.put(deck("b", 4));
+        assertNotNull(cache.peek("a"));
+        cache.put(deck("c", 4));
+        assertNull(cache.peek("a"));
+        assertNotNull(cache.peek("b"));
+    }
+
+    @Test
+    void neverEvictsDeckJustAdded() {
+        DeckCache cache = new DeckCache(10);
+        cache.put(deck("a", 4));
+        Deck big = deck("big", 20);
+        cache.put(big);
+        assertSame(big, cache.get("big"));
+        assertNull(cache.peek("a"));
+    }
+
+    @Test
+    void removesAndClears() {
+        DeckCache cache = new DeckCache(10);
+        Deck a = deck("a", 1);
+        cache.put(a);
+        cache.put(deck("b", 1));
+        assertSame(a, cache.remove("a"));
+        assertNull(cache.get("a"));
+        cache.clear();
+        assertNull(cache.peek("b"));
+    }
+
+    private static Deck deck(String name, int cards) {
+        Deck deck = new Deck(name);
+        for (int id = 1; id <= cards; id++) deck.addCard(id, new Card(id, "front", "back", 0, 0, 0, 0, 0, 0, 0));
+        return deck;
+    }
+}
@@ -0,0 +1,131 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrations tests: a version-0 database is brought through every migration to the latest schema
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class MigrationsTest {
+    private static final int LATEST_VERSION = 5;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void migratesEmptyDatabaseToLatestSchema() throws SQLException {
+        try (Connection connection = open("empty.db")) {
+            Migrations.migrate(connection);
+
+            assertEquals(LATEST_VERSION, userVersion(connection));
+            assertEquals(Set.of("users", "decks", "cards", "review_log", "review_daily", "cards_fts"),
+                    names(connection, "table", "cards_fts_%"));
+            assertEquals(Set.of("idx_decks_user_name", "idx_cards_deck_due", "idx_review_log_day"),
+                    names(connection, "index", "sqlite_%"));
+            assertEquals(Set.of("review_log_daily", "cards_fts_insert", "cards_fts_delete", "cards_fts_update"),
+                    names(connection, "trigger", ""));
+            assertEquals("INTEGER", columnType(connection, "cards", "due_date"));
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    void migratesLegacyRowsToEpochDays() throws SQLException {
+        try (Connection connection = open("legacy.db")) {
+            // The schema and text dates of databases created before versioning (user_version 0)
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE TABLE users (user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        "userName VARCHAR(20) UNIQUE, password VARCHAR(20), securityAnswer VARCHAR(20));");
+                stmt.execute("CREATE TABLE decks (deck_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        "name VARCHAR(40), user_id INTEGER);");
+                stmt.execute("CREATE TABLE cards (card_id INTEGER PRIMARY KEY, front TEXT, back TEXT, " +
+                        "leitner_box INTEGER, leitner_target INTEGER, creation_date TEXT, reviewed_date TEXT, " +
+                        "due_date TEXT, deck_id INTEGER, number_reviews INTEGER, number_passes INTEGER);");
+                stmt.execute("INSERT INTO users VALUES (1, 'ann', 'pw', 'blue');");
+                stmt.execute("INSERT INTO decks VALUES (1, 'Greek', 1);");
+                stmt.execute("INSERT INTO cards VALUES (7, 'alpha', 'a', 2, 4, '2025-09-21', NULL, " +
+                        "'2025-10-01', 1, 3, 2);");
+            }
+            assertEquals(0, userVersion(connection));
+
+            Migrations.migrate(connection);
+
+            assertEquals(LATEST_VERSION, userVersion(connection));
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT creation_date, reviewed_date, due_date, front, " +
+                         "number_reviews FROM cards WHERE card_id = 7;")) {
+                assertTrue(rs.next());
+                assertEquals(LocalDate.parse("2025-09-21").toEpochDay(), rs.getLong(1));
+                rs.getInt(2);
+                assertTrue(rs.wasNull());
+                assertEquals(LocalDate.parse("2025-10-01").toEpochDay(), rs.getLong(3));
+                assertEquals("alpha", rs.getString(4));
+                assertEquals(3, rs.getInt(5));
+            }
+            // The full-text index was built from the existing rows
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT rowid FROM cards_fts WHERE cards_fts MATCH 'alpha';")) {
+                assertTrue(rs.next());
+                assertEquals(7, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void migratingAgainChangesNothing() throws SQLException {
+        try (Connection connection = open("twice.db")) {
+            Migrations.migrate(connection);
+            Set<String> tables = names(connection, "table", "");
+            Migrations.migrate(connection);
+            assertEquals(LATEST_VERSION, userVersion(connection));
+            assertEquals(tables, names(connection, "table", ""));
+        }
+    }
+
+    private Connection open(String fileName) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + directory.resolve(fileName));
+    }
+
+    private static int userVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version;")) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    // Names of the schema objects of a type, leaving out SQLite's internal and FTS shadow objects
+    private static Set<String> names(Connection connection, String type, String excluded) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type = '" + type +
+                     "' AND name NOT LIKE 'sqlite_%' AND name NOT LIKE '" + excluded + "';")) {
+            while (rs.next()) names.add(rs.getString(1));
+        }
+        return names;
+    }
+
+    private static String columnType(Connection connection, String table, String column) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ");")) {
+            while (rs.next()) {
+                if (rs.getString("name").equals(column)) return rs.getString("type");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Deck;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark of the SQLite performance profiles: updateCard calls and a cold deck load under each profile
+ * Each profile gets a fresh database in a temporary directory. Run with:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.michaelstucki.triremeflashcards.dao.ProfileBenchmark [-Dexec.args="1000 50000"]
+ * </pre>
+ * Arguments: number of updateCard calls (default 1000) and cards in the loaded deck (default 50000).
+ * Results depend on the disk: durable pays for an fsync per commit, which is cheap on tmpfs.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class ProfileBenchmark {
+    private static final int IMPORT_BATCH = 5000;
+
+    private ProfileBenchmark() {}
+
+    /**
+     * Run the benchmark and print one line per profile
+     * @param args number of updates, number of cards in the loaded deck
+     * @throws IOException if the temporary directory cannot be created or removed
+     */
+    public static void main(String[] args) throws IOException {
+        int updates = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int deckCards = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        Path directory = Files.createTempDirectory("profile-benchmark");
+        try {
+            // Unmeasured round, so the first profile measured does not pay for class loading and JIT compilation
+            timeUpdates("jdbc:sqlite:" + directory.resolve("warm-up.db"), updates);
+            timeColdLoad("jdbc:sqlite:" + directory.resolve("warm-up.db"), Math.min(deckCards, 10_000));
+            for (PerformanceProfile profile : PerformanceProfile.values()) {
+                System.setProperty("trireme.db.profile", profile.name());
+                String url = "jdbc:sqlite:" + directory.resolve(profile.name() + ".db");
+                double updateMillis = timeUpdates(url, updates);
+                double loadMillis = timeColdLoad(url, deckCards);
+                System.out.printf("%-12s %d updateCard calls: %8.1f ms   cold load of %d cards: %7.1f ms%n",
+                        profile.displayName(), updates, updateMillis, deckCards, loadMillis);
+            }
+        } finally {
+            System.clearProperty("trireme.db.profile");
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+            }
+        }
+    }
+
+    // Time updateCard calls on the cards of a small deck, each its own transaction
+    private static double timeUpdates(String url, int updates) {
+        DaoSQLite dao = session(url);
+        try {
+            dao.addDeck(new Deck("updates"));
+            dao.importCards("updates", cards(100));
+            List<Card> cards = dao.getDeck("updates").getCards().toList();
+            long start = System.nanoTime();
+            for (int i = 0; i < updates; i++) {
+                Card card = cards.get(i % cards.size());
+                card.setNumberOfReviews(card.getNumberOfReviews() + 1);
+                dao.updateCard(card);
+            }
+            return (System.nanoTime() - start) / 1e6;
+        } finally {
+            dao.close();
+        }
+    }
+
+    // Time loading a deck's cards on a newly opened connection
+    private static double timeColdLoad(String url, int deckCards) {
+        DaoSQLite writer = session(url);
+        try {
+            writer.addDeck(new Deck("load"));
+            for (int added = 0; added < deckCards; added += IMPORT_BATCH) {
+                writer.importCards("load", cards(Math.min(IMPORT_BATCH, deckCards - added)));
+            }
+        } finally {
+            writer.close();
+        }
+        DaoSQLite reader = session(url);
+        try {
+            long start = System.nanoTime();
+            Deck deck = reader.getDeck("load");
+            double millis = (System.nanoTime() - start) / 1e6;
+            if (deck.size() != deckCards) throw new IllegalStateException("loaded " + deck.size() + " cards");
+            return millis;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static DaoSQLite session(String url) {
+        DaoSQLite dao = new DaoSQLite(url);
+        if (dao.getUser("bench") == null) {
+            dao.addUser("bench", "password", "answer");
+            dao.getUser("bench");
+        }
+        return dao;
+    }
+
+    private static List<Map.Entry<String, String>> cards(int count) {
+        List<Map.Entry<String, String>> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) cards.add(Map.entry("front of card " + i, "back of card " + i));
+        return cards;
+    }
+}
@@ -0,0 +1,72 @@
+package com.michaelstucki.triremeflashcards.dao;
+
+import com.michaelstucki.triremeflashcards.dto.Card;
+import com.michaelstucki.triremeflashcards.dto.Review;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReviewWriteBuffer tests: failed batches are retried, and a batch that keeps failing is written card by
+ * card so only the cards that cannot be written are dropped
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class ReviewWriteBufferTest {
+    private static final int POISONED_CARD = 13;
+
+    @Test
+    void keepsFailedBatchUntilItIsWritten() {
+        List<Integer> written = new ArrayList<>();
+        int[] failures = {2};
+        ReviewWriteBuffer buffer = new ReviewWriteBuffer((cards, reviews) -> {
+            if (failures[0]-- > 0) throw new SQLException("busy");
+            for (Card card : cards) written.add(card.getId());
+        });
+        buffer.add(card(1), review(1));
+        buffer.flush();
+        buffer.flush();
+        assertTrue(written.isEmpty());
+        buffer.flush();
+        assertEquals(List.of(1), written);
+        buffer.close();
+    }
+
+    @Test
+    void dropsOnlyCardsThatNeverSucceed() {
+        List<Integer> writtenCards = new ArrayList<>();
+        List<Integer> writtenReviews = new ArrayList<>();
+        ReviewWriteBuffer buffer = new ReviewWriteBuffer((cards, reviews) -> {
+            for (Card card : cards) if (card.getId() == POISONED_CARD) throw new SQLException("constraint");
+            for (Card card : cards) writtenCards.add(card.getId());
+            for (Review review : reviews) writtenReviews.add(review.getCardId());
+        });
+        buffer.add(card(1), review(1));
+        buffer.add(card(POISONED_CARD), review(POISONED_CARD));
+        buffer.add(card(2), review(2));
+        for (int attempt = 0; attempt < 3; attempt++) buffer.flush();
+        assertEquals(List.of(1, 2), writtenCards);
+        assertEquals(List.of(1, 2), writtenReviews);
+
+        // Reviews queued afterwards are no longer held back by the dropped card
+        buffer.add(card(3), review(3));
+        buffer.flush();
+        assertEquals(List.of(1, 2, 3), writtenCards);
+        assertEquals(List.of(1, 2, 3), writtenReviews);
+        buffer.close();
+    }
+
+    private static Card card(int cardId) {
+        return new Card(cardId, "front", "back", 0, 0, 1, 1, 1, 1, 1);
+    }
+
+    private static Review review(int cardId) {
+        return new Review(cardId, 0, 0L, true, 1, 2);
+    }
+}
@@ -0,0 +1,103 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Benchmark of the map card store (over CardMap) against the ConcurrentHashMap of boxed IDs it replaced:
+ * time and bytes allocated for random lookups, and for removing and re-adding half of the cards
+ * Bytes are those allocated by the benchmark thread. Run with:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.michaelstucki.triremeflashcards.dto.CardMapBenchmark [-Dexec.args="500000 2000000"]
+ * </pre>
+ * Arguments: number of cards (default 500000) and number of lookups (default 2000000).
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class CardMapBenchmark {
+    private static final int ROUNDS = 5;
+    private static volatile Object sink;
+
+    private CardMapBenchmark() {}
+
+    /**
+     * Run the benchmark and print one line per map
+     * @param args number of cards, number of lookups
+     * @throws ReflectiveOperationException if the thread allocation counter is not available
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int cards = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Card[] deck = new Card[cards];
+        for (int i = 0; i < cards; i++) deck[i] = new Card(i + 1, "front", "back", 0, 0, 0, 0, 0, 0, 0);
+        int[] keys = new Random(24).ints(lookups, 1, cards + 1).toArray();
+        Allocation allocation = new Allocation();
+
+        ConcurrentHashMap<Integer, Card> boxed = new ConcurrentHashMap<>();
+        for (Card card : deck) boxed.put(card.getId(), card);
+        MapCardStore store = new MapCardStore();
+        for (Card card : deck) store.put(card.getId(), card);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long bytes = allocation.bytes();
+            long start = System.nanoTime();
+            Card found = null;
+            for (int key : keys) found = boxed.get(key);
+            long boxedGet = System.nanoTime() - start;
+            long boxedGetBytes = allocation.bytes() - bytes;
+            sink = found;
+
+            bytes = allocation.bytes();
+            start = System.nanoTime();
+            for (int i = 0; i < cards; i += 2) boxed.remove(deck[i].getId());
+            for (int i = 0; i < cards; i += 2) boxed.put(deck[i].getId(), deck[i]);
+            long boxedChurn = System.nanoTime() - start;
+            long boxedChurnBytes = allocation.bytes() - bytes;
+
+            bytes = allocation.bytes();
+            start = System.nanoTime();
+            for (int key : keys) found = store.get(key);
+            long storeGet = System.nanoTime() - start;
+            long storeGetBytes = allocation.bytes() - bytes;
+            sink = found;
+
+            bytes = allocation.bytes();
+            start = System.nanoTime();
+            for (int i = 0; i < cards; i += 2) store.remove(deck[i].getId());
+            for (int i = 0; i < cards; i += 2) store.put(deck[i].getId(), deck[i]);
+            long storeChurn = System.nanoTime() - start;
+            long storeChurnBytes = allocation.bytes() - bytes;
+
+            System.out.printf("round %d, %d cards, %d lookups%n", round, cards, lookups);
+            System.out.printf("  ConcurrentHashMap<Integer, Card>: get %6.1f ms, %s; remove+reinsert half %6.1f ms, %s%n",
+                    boxedGet / 1e6, megabytes(boxedGetBytes), boxedChurn / 1e6, megabytes(boxedChurnBytes));
+            System.out.printf("  CardMap (via MapCardStore):       get %6.1f ms, %s; remove+reinsert half %6.1f ms, %s%n",
+                    storeGet / 1e6, megabytes(storeGetBytes), storeChurn / 1e6, megabytes(storeChurnBytes));
+        }
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 1_000_000 ? bytes + " B" : String.format("%.0f MB", bytes / 1e6);
+    }
+
+    // Bytes allocated by the current thread (com.sun.management.ThreadMXBean, reached through reflection
+    // because the app module does not read java.management)
+    private static final class Allocation {
+        private final Object threadBean;
+        private final Method allocatedBytes;
+
+        private Allocation() throws ReflectiveOperationException {
+            threadBean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean")
+                    .invoke(null);
+            allocatedBytes = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getCurrentThreadAllocatedBytes");
+        }
+
+        private long bytes() throws ReflectiveOperationException {
+            return (long) allocatedBytes.invoke(threadBean);
+        }
+    }
+}
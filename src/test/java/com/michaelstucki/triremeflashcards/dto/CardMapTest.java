@@ -0,0 +1,157 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CardMap tests: random operations checked against a HashMap, including colliding keys, probe runs that
+ * wrap around the end of the table, and resizing
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class CardMapTest {
+    // Entries a new map holds before it first grows (its table of 16 is kept at most half full)
+    private static final int FIRST_TABLE = 16;
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(24);
+        CardMap map = new CardMap(0);
+        Map<Integer, Card> expected = new HashMap<>();
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) keys.add(random.nextInt(4000) - 1000);
+        keys.addAll(List.of(0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        for (int step = 0; step < 100_000; step++) {
+            int key = keys.get(random.nextInt(keys.size()));
+            // Phases that mostly add, then mostly remove, so the map grows and empties again
+            boolean adding = (step / 20_000) % 2 == 0 ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.get(key), map.get(key));
+            } else if (adding) {
+                Card card = card(key);
+                assertSame(expected.put(key, card), map.put(key, card));
+            } else {
+                assertSame(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+            if (step % 1000 == 0) check(map, expected, keys);
+        }
+        check(map, expected, keys);
+    }
+
+    @Test
+    void collidingKeysWrappingAroundTableEndMatchHashMap() {
+        // Keys whose home is one of the last two entries or the first entry of the first table, so their
+        // probe runs collide and wrap around; at most FIRST_TABLE / 2 are held, so the table never grows
+        List<Integer> keys = keysWithHomes(FIRST_TABLE, List.of(FIRST_TABLE - 2, FIRST_TABLE - 1, 0), 15);
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            CardMap map = new CardMap(0);
+            Map<Integer, Card> expected = new HashMap<>();
+            for (int step = 0; step < 200; step++) {
+                int key = keys.get(random.nextInt(keys.size()));
+                if (random.nextBoolean() && (expected.size() < FIRST_TABLE / 2 || expected.containsKey(key))) {
+                    Card card = card(key);
+                    assertSame(expected.put(key, card), map.put(key, card));
+                } else {
+                    assertSame(expected.remove(key), map.remove(key));
+                }
+                check(map, expected, keys);
+            }
+        }
+    }
+
+    @Test
+    void removingFromRunKeepsLaterEntriesReachable() {
+        List<Integer> keys = keysWithHomes(FIRST_TABLE, List.of(FIRST_TABLE - 1), 6);
+        CardMap map = new CardMap(0);
+        Map<Integer, Card> expected = new HashMap<>();
+        for (int key : keys) {
+            Card card = card(key);
+            map.put(key, card);
+            expected.put(key, card);
+        }
+        // Remove from the head, the middle (past the wraparound), and the tail of the run
+        for (int index : new int[] {0, 3, 5, 1}) {
+            int key = keys.get(index);
+            assertSame(expected.remove(key), map.remove(key));
+            assertNull(map.remove(key));
+            check(map, expected, keys);
+        }
+    }
+
+    @Test
+    void growingKeepsEveryCard() {
+        CardMap map = new CardMap(0);
+        Map<Integer, Card> expected = new HashMap<>();
+        List<Integer> keys = new ArrayList<>();
+        // Sequential IDs (the usual case), then IDs far apart
+        for (int key = 1; key <= 5000; key++) keys.add(key);
+        for (int key = 1; key <= 5000; key++) keys.add(key * 65_536);
+        for (int key : keys) {
+            Card card = card(key);
+            map.put(key, card);
+            expected.put(key, card);
+            if (Integer.bitCount(expected.size()) == 1) check(map, expected, keys);
+        }
+        check(map, expected, keys);
+        for (int key : keys) assertSame(expected.remove(key), map.remove(key));
+        assertEquals(0, map.size());
+        check(map, expected, keys);
+    }
+
+    @Test
+    void presizedMapMatchesHashMap() {
+        CardMap map = new CardMap(1000);
+        Map<Integer, Card> expected = new HashMap<>();
+        List<Integer> keys = new ArrayList<>();
+        for (int key = -500; key < 1500; key++) keys.add(key);
+        for (int key : keys) {
+            Card card = card(key);
+            map.put(key, card);
+            expected.put(key, card);
+        }
+        check(map, expected, keys);
+    }
+
+    @Test
+    void nullCardIsRejected() {
+        assertThrows(NullPointerException.class, () -> new CardMap(0).put(1, null));
+    }
+
+    private static void check(CardMap map, Map<Integer, Card> expected, List<Integer> keys) {
+        assertEquals(expected.size(), map.size());
+        for (int key : keys) assertSame(expected.get(key), map.get(key), "key " + key);
+        Map<Card, Boolean> visited = new IdentityHashMap<>();
+        map.forEach(card -> assertNull(visited.put(card, true), "card visited twice"));
+        assertEquals(expected.size(), visited.size());
+        for (Card card : expected.values()) assertTrue(visited.containsKey(card));
+    }
+
+    // Keys whose home entry in a table of the given capacity is one of the given entries
+    private static List<Integer> keysWithHomes(int capacity, List<Integer> homes, int count) {
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 1; keys.size() < count; key++) {
+            if (homes.contains(home(key, capacity))) keys.add(key);
+        }
+        return keys;
+    }
+
+    // CardMap's home entry for a key: the top bits of the key's Fibonacci hash
+    private static int home(int key, int capacity) {
+        return (key * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(capacity) + 1);
+    }
+
+    private static Card card(int cardId) {
+        return new Card(cardId, "front " + cardId, "back " + cardId, 0, 0, 0, 0, 0, 0, 0);
+    }
+}
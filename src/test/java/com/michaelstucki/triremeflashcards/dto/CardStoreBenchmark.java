@@ -0,0 +1,72 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark of the two card stores: heap per card and time to build a drill queue of the due cards
+ * Heap is measured as the growth in used memory after garbage collection, so run it alone, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.michaelstucki.triremeflashcards.dto.CardStoreBenchmark [-Dexec.args="500000"]
+ * </pre>
+ * Argument: number of cards (default 500000), with ~20-character fronts and backs and about half due.
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class CardStoreBenchmark {
+    private static final int TODAY = 20_000;
+    private static final int ROUNDS = 5;
+
+    private CardStoreBenchmark() {}
+
+    /**
+     * Run the benchmark and print one line per store
+     * @param args number of cards
+     */
+    public static void main(String[] args) {
+        int cards = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        // Unmeasured round, so the first store measured does not pay for class loading and JIT compilation
+        measure("warm-up", () -> new Deck("warm-up"), Math.min(cards, 50_000), false);
+        measure("warm-up", () -> Deck.columnar("warm-up", cards), Math.min(cards, 50_000), false);
+        measure("map", () -> new Deck("map"), cards, true);
+        measure("columnar", () -> Deck.columnar("columnar", cards), cards, true);
+    }
+
+    private static void measure(String name, Supplier<Deck> newDeck, int cards, boolean print) {
+        long before = usedHeap();
+        Deck deck = newDeck.get();
+        Random random = new Random(1);
+        for (int id = 1; id <= cards; id++) {
+            int dueDay = TODAY - 30 + random.nextInt(60);
+            deck.addCard(id, new Card(id, "front of card " + id, "back of card " + id, TODAY - 100, TODAY - 10,
+                    dueDay, random.nextInt(5), 5, random.nextInt(20), random.nextInt(20)));
+        }
+        long bytes = usedHeap() - before;
+        long best = Long.MAX_VALUE;
+        int due = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<Card> queue = new ArrayList<>(deck.getDueCards(TODAY, Integer.MAX_VALUE));
+            Collections.shuffle(queue, random);
+            best = Math.min(best, System.nanoTime() - start);
+            due = queue.size();
+        }
+        if (print) {
+            System.out.printf("%-9s %d cards: heap %6.1f MB (%d B/card)   due queue of %d cards: %6.1f ms%n", name,
+                    cards, bytes / 1e6, bytes / cards, due, best / 1e6);
+        }
+        // Keep the deck reachable until it has been measured
+        if (deck.size() != cards) throw new IllegalStateException("stored " + deck.size() + " cards");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,191 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ColumnarCardStore tests: card views against a reference map of card states, through removal and re-adding
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class ColumnarCardStoreTest {
+    private static final int DAYS = 20;
+    private static final int BOXES = 6;
+
+    @Test
+    void viewOfRemovedCardKeepsItsLastState() {
+        ColumnarCardStore store = new ColumnarCardStore(4);
+        store.put(1, card(1, "alpha", 3, 2));
+        store.put(2, card(2, "beta", 5, 1));
+        Card view = store.get(1);
+
+        store.remove(1);
+        store.put(3, card(3, "gamma", 7, 4));
+
+        assertNull(store.get(1));
+        assertEquals(State.of(card(1, "alpha", 3, 2)), State.of(view));
+        assertEquals(2, store.size());
+        assertEquals(Set.of(2, 3), new HashSet<>(ids(store.dueCards(DAYS, Integer.MAX_VALUE))));
+    }
+
+    @Test
+    void reAddingOwnViewRestoresCardAndIndex() {
+        ColumnarCardStore store = new ColumnarCardStore(4);
+        store.put(1, card(1, "alpha", 3, 2));
+        Card view = store.get(1);
+        store.remove(1);
+        assertEquals(0, store.countDue(DAYS));
+        assertEquals(0, store.countInBox(2));
+
+        store.put(1, view);
+
+        assertEquals(State.of(view), State.of(store.get(1)));
+        assertEquals(1, store.countDueOn(3));
+        assertEquals(1, store.countInBox(2));
+    }
+
+    @Test
+    void replacingRemovedCardReusesItsSlotForTheSameId() {
+        ColumnarCardStore store = new ColumnarCardStore(4);
+        store.put(1, card(1, "alpha", 3, 2));
+        Card view = store.get(1);
+        store.remove(1);
+
+        store.put(1, card(1, "omega", 9, 5));
+
+        assertEquals(1, view.getId());
+        assertEquals("omega front", view.getFront());
+        assertEquals(0, store.countDueOn(3));
+        assertEquals(1, store.countDueOn(9));
+        assertEquals(0, store.countInBox(2));
+        assertEquals(1, store.countInBox(5));
+    }
+
+    @Test
+    void randomOperationsMatchReferenceMap() {
+        Random random = new Random(23);
+        ColumnarCardStore store = new ColumnarCardStore(4);
+        Map<Integer, State> expected = new HashMap<>();
+        // Views handed out by the store, with the state each must read
+        Map<Integer, Card> views = new HashMap<>();
+        Map<Integer, State> removed = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            int cardId = random.nextInt(300) + 1;
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    // Add or replace a card (a removed ID gets its slot back with the new state)
+                    Card card = randomCard(cardId, random);
+                    store.put(cardId, card);
+                    expected.put(cardId, State.of(card));
+                    removed.remove(cardId);
+                }
+                case 2 -> {
+                    store.remove(cardId);
+                    State last = expected.remove(cardId);
+                    if (last != null && views.containsKey(cardId)) removed.put(cardId, last);
+                }
+                case 3 -> {
+                    // Undo a removal by re-adding the card's own view
+                    Card view = views.get(cardId);
+                    if (view == null || !removed.containsKey(cardId)) continue;
+                    store.put(cardId, view);
+                    expected.put(cardId, removed.remove(cardId));
+                }
+                default -> {
+                    // Review or edit a live card through a fresh view
+                    Card view = store.get(cardId);
+                    if (view == null) continue;
+                    view.setDueDay(random.nextInt(DAYS));
+                    view.setLeitnerBox(random.nextInt(BOXES));
+                    view.setNumberOfReviews(view.getNumberOfReviews() + 1);
+                    if (random.nextBoolean()) view.setFront(random.nextBoolean() ? null : "edit " + step);
+                    expected.put(cardId, State.of(view));
+                    views.put(cardId, view);
+                }
+            }
+            if (step % 50 == 0) check(store, expected, views, removed);
+        }
+        check(store, expected, views, removed);
+    }
+
+    private static void check(ColumnarCardStore store, Map<Integer, State> expected, Map<Integer, Card> views,
+                              Map<Integer, State> removed) {
+        assertEquals(expected.size(), store.size());
+        for (Map.Entry<Integer, State> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), State.of(store.get(entry.getKey())));
+        }
+        for (Map.Entry<Integer, Card> entry : views.entrySet()) {
+            int cardId = entry.getKey();
+            Card view = entry.getValue();
+            assertEquals(cardId, view.getId());
+            State state = expected.containsKey(cardId) ? expected.get(cardId) : removed.get(cardId);
+            if (state != null) assertEquals(state, State.of(view));
+            if (!expected.containsKey(cardId)) assertNull(store.get(cardId));
+        }
+        assertEquals(expected.keySet().stream().sorted().toList(), ids(store.toList()));
+        Set<Integer> visited = new HashSet<>();
+        store.forEach(card -> assertTrue(visited.add(card.getId())));
+        assertEquals(expected.keySet(), visited);
+        checkDueIndex(store, expected);
+    }
+
+    // Check the due index against a scan of the reference states
+    private static void checkDueIndex(ColumnarCardStore store, Map<Integer, State> expected) {
+        for (int day = -1; day <= DAYS; day++) {
+            int cutOff = day;
+            Set<Integer> due = new HashSet<>();
+            expected.forEach((cardId, state) -> {
+                if (state.dueDay <= cutOff) due.add(cardId);
+            });
+            List<Card> dueCards = store.dueCards(day, Integer.MAX_VALUE);
+            assertFalse(dueCards.contains(null));
+            assertEquals(due, new HashSet<>(ids(dueCards)));
+            assertEquals(due.size(), dueCards.size());
+            assertEquals(due.size(), store.countDue(day));
+            assertEquals(expected.values().stream().filter(state -> state.dueDay == cutOff).count(),
+                    store.countDueOn(day));
+            assertEquals(Math.min(3, due.size()), store.dueCards(day, 3).size());
+        }
+        for (int box = 0; box < BOXES; box++) {
+            int leitnerBox = box;
+            assertEquals(expected.values().stream().filter(state -> state.leitnerBox == leitnerBox).count(),
+                    store.countInBox(box));
+        }
+    }
+
+    private static Card randomCard(int cardId, Random random) {
+        return new Card(cardId, "front " + random.nextInt(1000), random.nextInt(10) == 0 ? null : "back " + cardId,
+                random.nextInt(DAYS), random.nextInt(DAYS), random.nextInt(DAYS), random.nextInt(BOXES),
+                random.nextInt(BOXES), random.nextInt(9), random.nextInt(9));
+    }
+
+    private static Card card(int cardId, String word, int dueDay, int leitnerBox) {
+        return new Card(cardId, word + " front", word + " back", 0, 0, dueDay, leitnerBox, 0, 0, 0);
+    }
+
+    private static List<Integer> ids(List<Card> cards) {
+        List<Integer> ids = new ArrayList<>(cards.size());
+        for (Card card : cards) ids.add(card.getId());
+        return ids;
+    }
+
+    // Everything a card holds, read through its accessors
+    private record State(int cardId, String front, String back, int creationDay, int reviewedDay, int dueDay,
+                 int leitnerBox, int leitnerTarget, int numberOfReviews, int numberOfPasses) {
+        static State of(Card card) {
+            return new State(card.getId(), card.getFront(), card.getBack(), card.getCreationDay(),
+                    card.getReviewedDay(), card.getDueDay(), card.getLeitnerBox(), card.getLeitnerTarget(),
+                    card.getNumberOfReviews(), card.getNumberOfPasses());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.michaelstucki.triremeflashcards.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Due index tests, through Deck, for both card stores: due lists and counts are checked against a scan of
+ * the deck's cards as cards move between days and boxes, are deleted, and are added back
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class DueIndexTest {
+    private static final int TODAY = 100;
+    private static final int BOXES = 6;
+
+    @Test
+    void mapDeckIndexFollowsReviewsDeletesAndReAdds() {
+        randomOperations(() -> new Deck("map"));
+    }
+
+    @Test
+    void columnarDeckIndexFollowsReviewsDeletesAndReAdds() {
+        randomOperations(() -> Deck.columnar("columnar", 4));
+    }
+
+    @Test
+    void deletedCardNoLongerMovesInIndex() {
+        for (Deck deck : List.of(new Deck("map"), Deck.columnar("columnar", 4))) {
+            deck.addCard(1, card(1, TODAY, 2));
+            deck.addCard(2, card(2, TODAY, 2));
+            Card deleted = deck.getCard(1);
+            deck.deleteCard(1);
+
+            deleted.setDueDay(TODAY - 5);
+            deleted.setLeitnerBox(4);
+
+            assertEquals(List.of(2), ids(deck.getDueCards(TODAY, Integer.MAX_VALUE)));
+            assertEquals(0, deck.getOverdueCount(TODAY));
+            assertEquals(1, deck.getBoxCount(2));
+            assertEquals(0, deck.getBoxCount(4));
+            // Adding it back indexes it as it now is
+            deck.addCard(1, deleted);
+            assertEquals(1, deck.getOverdueCount(TODAY));
+            assertEquals(1, deck.getBoxCount(4));
+            check(deck);
+        }
+    }
+
+    @Test
+    void replacedCardNoLongerMovesInIndex() {
+        Deck deck = new Deck("map");
+        Card replaced = card(1, TODAY, 1);
+        deck.addCard(1, replaced);
+        deck.addCard(1, card(1, TODAY + 3, 3));
+
+        replaced.setDueDay(TODAY - 1);
+        replaced.setLeitnerBox(5);
+
+        assertEquals(0, deck.getDueCount(TODAY));
+        assertEquals(1, deck.getBoxCount(3));
+        assertEquals(0, deck.getBoxCount(5));
+        check(deck);
+    }
+
+    @Test
+    void mapDeckIndexSurvivesReviewRacingDelete() throws InterruptedException {
+        reviewRacingDelete(new Deck("map"));
+    }
+
+    @Test
+    void columnarDeckIndexSurvivesReviewRacingDelete() throws InterruptedException {
+        reviewRacingDelete(Deck.columnar("columnar", 4));
+    }
+
+    private static void randomOperations(Supplier<Deck> newDeck) {
+        Random random = new Random(25);
+        Deck deck = newDeck.get();
+        // The last instance of each card handed out by the deck, for adding it back after it is deleted
+        Map<Integer, Card> deleted = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            int cardId = random.nextInt(200) + 1;
+            Card card = deck.getCard(cardId);
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    if (card == null) deck.addCard(cardId, card(cardId, TODAY + random.nextInt(11) - 5,
+                            random.nextInt(BOXES)));
+                }
+                case 1 -> {
+                    if (card == null) continue;
+                    deck.deleteCard(cardId);
+                    deleted.put(cardId, card);
+                }
+                case 2 -> {
+                    Card old = deleted.remove(cardId);
+                    if (card == null && old != null) deck.addCard(cardId, old);
+                }
+                default -> {
+                    if (card == null) continue;
+                    card.setDueDay(TODAY + random.nextInt(11) - 5);
+                    card.setLeitnerBox(random.nextInt(BOXES));
+                }
+            }
+            if (step % 100 == 0) check(deck);
+        }
+        check(deck);
+    }
+
+    // A review that waits for the store while the card is deleted must not leave the card in the index
+    private static void reviewRacingDelete(Deck deck) throws InterruptedException {
+        deck.addCard(1, card(1, TODAY, 1));
+        deck.addCard(2, card(2, TODAY, 1));
+        Card card = deck.getCard(1);
+        Thread reviewer = new Thread(() -> {
+            card.setDueDay(TODAY + 3);
+            card.setLeitnerBox(2);
+        });
+        // Hold the store's monitor (the card view is the store) until the review waits for it, then delete
+        synchronized (deck.getCards()) {
+            reviewer.start();
+            while (reviewer.getState() != Thread.State.BLOCKED) {
+                assertTrue(reviewer.isAlive(), "review did not wait for the store");
+                Thread.onSpinWait();
+            }
+            deck.deleteCard(1);
+        }
+        reviewer.join();
+
+        assertEquals(TODAY + 3, card.getDueDay());
+        assertEquals(List.of(2), ids(deck.getDueCards(TODAY + 3, Integer.MAX_VALUE)));
+        check(deck);
+    }
+
+    // Check due lists and counts against a scan of the deck's cards
+    private static void check(Deck deck) {
+        List<Card> cards = deck.getCards().toList();
+        for (int day = TODAY - 6; day <= TODAY + 6; day++) {
+            int cutOff = day;
+            Set<Integer> due = new HashSet<>();
+            for (Card card : cards) {
+                if (card.getDueDay() <= cutOff) due.add(card.getId());
+            }
+            List<Card> dueCards = deck.getDueCards(day, Integer.MAX_VALUE);
+            assertFalse(dueCards.contains(null), "null due card");
+            assertEquals(due.size(), dueCards.size());
+            assertEquals(due, new HashSet<>(ids(dueCards)));
+            assertEquals(due.size(), deck.getDueCount(day));
+            assertEquals(cards.stream().filter(card -> card.getDueDay() == cutOff).count(), deck.getDueTodayCount(day));
+            assertEquals(cards.stream().filter(card -> card.getDueDay() < cutOff).count(), deck.getOverdueCount(day));
+            assertEquals(Math.min(5, due.size()), deck.getDueCards(day, 5).size());
+        }
+        for (int box = 0; box < BOXES; box++) {
+            int leitnerBox = box;
+            assertEquals(cards.stream().filter(card -> card.getLeitnerBox() == leitnerBox).count(),
+                    deck.getBoxCount(box));
+        }
+    }
+
+    private static List<Integer> ids(List<Card> cards) {
+        List<Integer> ids = new ArrayList<>(cards.size());
+        for (Card card : cards) ids.add(card.getId());
+        return ids;
+    }
+
+    private static Card card(int cardId, int dueDay, int leitnerBox) {
+        return new Card(cardId, "front " + cardId, "back " + cardId, 0, 0, dueDay, leitnerBox, 0, 0, 0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.michaelstucki.triremeflashcards.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Json tests: building responses, parsing request bodies, and rejecting malformed input
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class JsonTest {
+
+    @Test
+    void parsesFlatObject() {
+        Map<String, String> values = Json.parse(" {\"name\" : \"Greek\", \"cardId\":42,\"ok\":true, " +
+                "\"rate\":-1.5e3, \"none\":null}\n");
+        Map<String, String> expected = new HashMap<>();
+        expected.put("name", "Greek");
+        expected.put("cardId", "42");
+        expected.put("ok", "true");
+        expected.put("rate", "-1.5e3");
+        expected.put("none", null);
+        assertEquals(expected, values);
+        assertEquals(Map.of(), Json.parse("{}"));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("a\"b\\c/d\ne\rf\tg\bh\fi", Json.parse(
+                "{\"k\":\"a\\\"b\\\\c\\/d\\ne\\rf\\tg\\bh\\fi\"}").get("k"));
+        assertEquals("λ😀", Json.parse("{\"k\":\"\\u03bb\\ud83d\\ude00\"}").get("k"));
+        assertEquals("x", Json.parse("{\"\\u006B\":\"x\"}").get("k"));
+    }
+
+    @Test
+    void keepsNonAsciiAndEmbeddedNewlinesThroughRoundTrip() {
+        String text = "line 1\nline 2 \"quoted\" \\ tab\t café \u0001";
+        Json.Raw json = Json.object("front", text);
+        assertEquals(text, Json.parse(json.json()).get("front"));
+    }
+
+    @Test
+    void buildsObjectsAndArrays() {
+        Json.Raw card = Json.object("id", 7, "front", "a\"b", "due", null, "passed", true);
+        assertEquals("{\"id\":7,\"front\":\"a\\\"b\",\"due\":null,\"passed\":true}", card.json());
+        assertEquals("[" + card + ",\"x\",3]", Json.array(Arrays.asList(card, "x", 3)).json());
+        assertEquals("[]", Json.array(List.of()).json());
+        assertEquals("{\"k\":\"\\u0001\"}", Json.object("k", "\u0001").json());
+    }
+
+    @Test
+    void rejectsTrailingText() {
+        assertBad("{\"a\":1} x");
+        assertBad("{\"a\":1}{}");
+        assertBad("{\"a\":1},");
+    }
+
+    @Test
+    void rejectsMalformedObjects() {
+        for (String text : List.of("", "   ", "[]", "\"a\"", "{", "{\"a\"}", "{\"a\":}", "{\"a\":1,}",
+                "{\"a\":1 \"b\":2}", "{a:1}", "{'a':1}", "{\"a\":\"open}")) {
+            assertBad(text);
+        }
+    }
+
+    @Test
+    void rejectsBadLiterals() {
+        for (String text : List.of("{\"a\":tru}", "{\"a\":True}", "{\"a\":nul}", "{\"a\":01}", "{\"a\":1.}",
+                "{\"a\":.5}", "{\"a\":+1}", "{\"a\":0x10}", "{\"a\":NaN}", "{\"a\":1]}")) {
+            assertBad(text);
+        }
+    }
+
+    @Test
+    void rejectsBadStrings() {
+        assertBad("{\"a\":\"\\x\"}");
+        assertBad("{\"a\":\"\\u12\"}");
+        assertBad("{\"a\":\"\\u+123\"}");
+        assertBad("{\"a\":\"\\u12g4\"}");
+        assertBad("{\"a\":\"line\nbreak\"}");
+        assertBad("{\"a\":\"tab\there\"}");
+    }
+
+    @Test
+    void rejectsNestedValues() {
+        assertBad("{\"a\":{\"b\":1}}");
+        assertBad("{\"a\":[1]}");
+    }
+
+    private static void assertBad(String text) {
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+    }
+}
@@ -0,0 +1,155 @@
+package com.michaelstucki.triremeflashcards.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Load-test client for FlashcardServer: simulated learners that build decks and drill them over HTTP
+ * Each learner, on its own virtual thread, creates an account and signs in, then until the run ends
+ * adds a deck of CARDS_PER_DECK cards and drills it (next, then pass or fail at random) until no card
+ * is due. Every request is timed; the report gives requests per second and latency percentiles.
+ * Start the server first (it uses the app's database, so point it at a copy you can throw away), e.g.
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.michaelstucki.triremeflashcards.server.FlashcardServer
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.michaelstucki.triremeflashcards.server.LoadTestClient \
+ *     -Dexec.args="http://localhost:8080 50 20"
+ * </pre>
+ * Arguments: server URL (default http://localhost:8080), learners (default 50), seconds (default 20).
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+public final class LoadTestClient {
+    private static final int CARDS_PER_DECK = 40;
+    private final String baseUrl;
+    private final long deadline;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private LoadTestClient(String baseUrl, long deadline) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Run the load test and print its report
+     * @param args server URL, number of learners, duration in seconds
+     * @throws Exception if a learner fails
+     */
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int learners = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long start = System.nanoTime();
+        LoadTestClient client = new LoadTestClient(baseUrl, start + seconds * 1_000_000_000L);
+        List<Future<Learner>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < learners; i++) {
+                Learner learner = client.new Learner(i);
+                futures.add(executor.submit(() -> {
+                    learner.run();
+                    return learner;
+                }));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        List<Long> latencies = new ArrayList<>();
+        int errors = 0;
+        for (Future<Learner> future : futures) {
+            try {
+                Learner learner = future.get();
+                latencies.addAll(learner.latencies);
+                errors += learner.errors;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("learner failed", e.getCause());
+            }
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("%d learners, %.1f s: %d requests (%d errors), %.0f req/s%n", learners, elapsedSeconds,
+                sorted.length, errors, sorted.length / elapsedSeconds);
+        System.out.printf("latency p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms%n", percentile(sorted, 50),
+                percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // One simulated learner with its own session token, timings, and error count
+    private final class Learner {
+        private final int number;
+        private final List<Long> latencies = new ArrayList<>();
+        private int errors;
+        private String token;
+
+        private Learner(int number) { this.number = number; }
+
+        private void run() throws IOException {
+            String username = "load-" + runId + "-" + number;
+            send("POST", "/users", Json.object("username", username, "password", "password",
+                    "securityAnswer", "answer"));
+            Reply login = send("POST", "/login", Json.object("username", username, "password", "password"));
+            if (login.status != 200) throw new IOException("login failed: " + login.status + " " + login.body);
+            token = Json.parse(login.body).get("token");
+            for (int deck = 0; System.nanoTime() < deadline; deck++) {
+                String path = "/decks/" + URLEncoder.encode("deck " + deck, StandardCharsets.UTF_8);
+                send("POST", "/decks", Json.object("name", "deck " + deck));
+                for (int card = 0; card < CARDS_PER_DECK && System.nanoTime() < deadline; card++) {
+                    send("POST", path + "/cards", Json.object("front", "front " + card, "back", "back " + card));
+                }
+                while (System.nanoTime() < deadline) {
+                    Reply next = send("GET", path + "/next", null);
+                    if (next.status != 200) break;
+                    String cardId = Json.parse(next.body).get("id");
+                    String result = ThreadLocalRandom.current().nextInt(4) == 0 ? "fail" : "pass";
+                    send("POST", path + "/review", Json.object("cardId", Integer.parseInt(cardId), "result", result));
+                }
+            }
+            send("POST", "/logout", null);
+        }
+
+        // Send a request, timing it until its whole response has been read
+        private Reply send(String method, String path, Json.Raw body) throws IOException {
+            long start = System.nanoTime();
+            HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+            connection.setRequestMethod(method);
+            if (token != null) connection.setRequestProperty("Authorization", "Bearer " + token);
+            if (body != null) {
+                byte[] bytes = body.json().getBytes(StandardCharsets.UTF_8);
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                connection.setFixedLengthStreamingMode(bytes.length);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(bytes);
+                }
+            }
+            int status = connection.getResponseCode();
+            String text = "";
+            try (InputStream input = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+                if (input != null) text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            latencies.add(System.nanoTime() - start);
+            // 409 answers a taken username or a deck that exists, which a rerun may meet
+            if (status >= 400 && status != 409) errors++;
+            return new Reply(status, text);
+        }
+    }
+
+    private record Reply(int status, String body) {}
+}
@@ -0,0 +1,95 @@
+package com.michaelstucki.triremeflashcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DelimitedReader tests: quoting, escapes, line endings, and malformed input
+ * @author Michael Stucki
+ * @version 1.0
+ * @since 2025-09-21
+ */
+class DelimitedReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\nc,d\n", ','));
+        assertEquals(List.of(List.of("a", "b,c")), readAll("a\tb,c", '\t'));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(List.of(List.of("", "b", ""), List.of("")), readAll(",b,\n\n", ','));
+    }
+
+    @Test
+    void endsRecordsAtLfCrlfAndCr() throws IOException {
+        assertEquals(List.of(List.of("a"), List.of("b"), List.of("c"), List.of("d")),
+                readAll("a\nb\r\nc\rd", ','));
+    }
+
+    @Test
+    void skipsByteOrderMark() throws IOException {
+        assertEquals(List.of(List.of("front", "back")), readAll("\uFEFFfront,back\n", ','));
+    }
+
+    @Test
+    void readsQuotedDelimitersAndEscapedQuotes() throws IOException {
+        assertEquals(List.of(List.of("a,b", "say \"hi\"", "")), readAll("\"a,b\",\"say \"\"hi\"\"\",\"\"", ','));
+        assertEquals(List.of(List.of("\"")), readAll("\"\"\"\"", ','));
+    }
+
+    @Test
+    void readsEmbeddedLineBreaks() throws IOException {
+        assertEquals(List.of(List.of("line 1\nline 2", "x"), List.of("a\r\nb")),
+                readAll("\"line 1\nline 2\",x\r\n\"a\r\nb\"\r\n", ','));
+    }
+
+    @Test
+    void keepsQuoteInsideUnquotedField() throws IOException {
+        assertEquals(List.of(List.of("5\" disk", "b")), readAll("5\" disk,b", ','));
+    }
+
+    @Test
+    void readsNonAsciiText() throws IOException {
+        assertEquals(List.of(List.of("λόγος", "word 😀")), readAll("λόγος\tword 😀\n", '\t'));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedField() {
+        IOException e = assertThrows(IOException.class, () -> readAll("a,b\n\"open,c\n", ','));
+        assertTrue(e.getMessage().contains("record 2"), e.getMessage());
+    }
+
+    @Test
+    void rejectsTextAfterClosingQuote() {
+        assertThrows(IOException.class, () -> readAll("\"a\"junk,b\n", ','));
+        assertThrows(IOException.class, () -> readAll("\"a\" ,b\n", ','));
+        assertThrows(IOException.class, () -> readAll("x,\"b\"\"\"c", ','));
+    }
+
+    @Test
+    void choosesDelimiterByFileName() {
+        assertEquals(',', DelimitedReader.delimiterFor("deck.csv"));
+        assertEquals('\t', DelimitedReader.delimiterFor("deck.TSV"));
+        assertEquals('\t', DelimitedReader.delimiterFor("deck.tab.gz"));
+        assertEquals(',', DelimitedReader.delimiterFor("deck.txt"));
+        assertTrue(DelimitedReader.isCompressed("deck.csv.GZ"));
+        assertFalse(DelimitedReader.isCompressed("deck.csv"));
+    }
+
+    private static List<List<String>> readAll(String text, char delimiter) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (DelimitedReader reader = new DelimitedReader(new StringReader(text), delimiter)) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) records.add(record);
+        }
+        return records;
+    }
+}